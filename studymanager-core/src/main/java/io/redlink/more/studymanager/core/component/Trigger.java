@@ -14,6 +14,12 @@ import io.redlink.more.studymanager.core.io.TriggerResult;
 import io.redlink.more.studymanager.core.properties.TriggerProperties;
 import io.redlink.more.studymanager.core.sdk.MoreTriggerSDK;
 
+/**
+ * A trigger decides which participants the actions of an intervention are executed for.
+ * <p>
+ * Trigger-instances are cached and shared by concurrent executions, so implementations must be
+ * stateless: any state that has to survive an execution is kept via the {@link MoreTriggerSDK}.
+ */
 public abstract class Trigger<C extends TriggerProperties> extends Component<C> {
 
     protected final MoreTriggerSDK sdk;
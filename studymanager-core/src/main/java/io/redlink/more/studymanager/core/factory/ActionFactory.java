@@ -22,6 +22,15 @@ import java.util.stream.Collectors;
 public abstract class ActionFactory<C extends Action, P extends ActionProperties> extends ComponentFactory<C, P> {
     public abstract C create(MoreActionSDK sdk, P properties) throws ConfigurationValidationException;
 
+    /**
+     * Create the action from properties that were already checked with {@link #validate(ActionProperties)}.
+     * Factories that validate in {@link #create(MoreActionSDK, ActionProperties)} should override this
+     * to skip the repeated validation.
+     */
+    public C createValidated(MoreActionSDK sdk, P properties) throws ConfigurationValidationException {
+        return create(sdk, properties);
+    }
+
     @Override
     public Class<ActionProperties> getPropertyClass() {
         return ActionProperties.class;
@@ -0,0 +1,70 @@
+/*
+ * Copyright LBI-DHP and/or licensed to LBI-DHP under one or more
+ * contributor license agreements (LBI-DHP: Ludwig Boltzmann Institute
+ * for Digital Health and Prevention -- A research institute of the
+ * Ludwig Boltzmann Gesellschaft, Österreichische Vereinigung zur
+ * Förderung der wissenschaftlichen Forschung).
+ * Licensed under the Elastic License 2.0.
+ */
+package io.redlink.more.studymanager.core.io;
+
+import java.util.List;
+
+/**
+ * A structured query on the data-points of a study, compiled by the platform into a query that the
+ * storage-backend can evaluate (and cache) without re-parsing.
+ * <p>
+ * Implementations are value-objects, so a query can be used as cache-key.
+ */
+public sealed interface DataQuery permits DataQuery.Condition, DataQuery.All, DataQuery.Any {
+
+    enum Operator {
+        EQ("="), NEQ("!="), LT("<"), LTE("<="), GT(">"), GTE(">=");
+
+        private final String symbol;
+
+        Operator(String symbol) {
+            this.symbol = symbol;
+        }
+
+        public String symbol() {
+            return symbol;
+        }
+
+        public static Operator fromSymbol(String symbol) {
+            if ("==".equals(symbol)) {
+                return EQ;
+            }
+            for (Operator operator : values()) {
+                if (operator.symbol.equals(symbol)) {
+                    return operator;
+                }
+            }
+            throw new UnsupportedOperationException("Unsupported operator " + symbol);
+        }
+    }
+
+    /**
+     * Matches data-points of the observation where the value of the property satisfies the operator.
+     */
+    record Condition(int observationId, String property, Operator operator, Object value) implements DataQuery {
+    }
+
+    /**
+     * Matches if all queries match.
+     */
+    record All(List<DataQuery> queries) implements DataQuery {
+        public All {
+            queries = List.copyOf(queries);
+        }
+    }
+
+    /**
+     * Matches if at least one of the queries matches.
+     */
+    record Any(List<DataQuery> queries) implements DataQuery {
+        public Any {
+            queries = List.copyOf(queries);
+        }
+    }
+}
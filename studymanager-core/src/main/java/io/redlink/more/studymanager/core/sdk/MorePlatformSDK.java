@@ -9,6 +9,7 @@
 package io.redlink.more.studymanager.core.sdk;
 
 import java.io.Serializable;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
@@ -20,6 +21,9 @@ public interface MorePlatformSDK {
     <T extends Serializable> void setValue(String name, T value);
     <T extends Serializable> Optional<T> getValue(String name, Class<T> tClass);
     void removeValue(String name);
+    <T extends Serializable> void setValues(Map<String, T> values);
+    <T extends Serializable> Map<String, T> getValues(String namePrefix, Class<T> tClass);
+    void removeValues(String namePrefix);
     Set<Integer> participantIds(ParticipantFilter filter);
     long getStudyId();
     Integer getStudyGroupId();
@@ -8,15 +8,28 @@
  */
 package io.redlink.more.studymanager.core.sdk;
 
+import io.redlink.more.studymanager.core.io.DataQuery;
 import io.redlink.more.studymanager.core.io.TimeRange;
 import io.redlink.more.studymanager.core.sdk.schedule.Schedule;
 
+import java.time.Instant;
+import java.util.Map;
 import java.util.Set;
 
 public interface MoreTriggerSDK extends MorePlatformSDK {
     String addSchedule(Schedule schedule);
     void removeSchedule(String id);
     Set<Integer> participantIdsMatchingQuery(String query, TimeRange timeRange);
+    Set<Integer> participantIdsMatchingQuery(DataQuery query, TimeRange timeRange);
+
+    /**
+     * The effective time of the latest data matching the query, per participant.
+     * Only considers data within the time-range that was stored after {@code storedAfter} (all data if {@code null}),
+     * the result is not restricted to active participants.
+     *
+     * @throws RuntimeException if the data could not be queried, so callers do not mistake a failure for no matches
+     */
+    Map<Integer, Instant> latestMatchingDataPerParticipant(DataQuery query, TimeRange timeRange, Instant storedAfter);
     String addWebhook();
     void removeWebhook();
 }
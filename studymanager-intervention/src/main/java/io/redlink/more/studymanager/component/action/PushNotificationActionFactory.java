@@ -26,7 +26,12 @@ public class PushNotificationActionFactory extends ActionFactory<PushNotificatio
     );
     @Override
     public PushNotificationAction create(MoreActionSDK sdk, ActionProperties properties) throws ConfigurationValidationException {
-        return new PushNotificationAction(sdk, validate(properties));
+        return createValidated(sdk, validate(properties));
+    }
+
+    @Override
+    public PushNotificationAction createValidated(MoreActionSDK sdk, ActionProperties properties) throws ConfigurationValidationException {
+        return new PushNotificationAction(sdk, properties);
     }
 
     @Override
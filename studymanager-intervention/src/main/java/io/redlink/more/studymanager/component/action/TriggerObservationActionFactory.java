@@ -29,7 +29,12 @@ public class TriggerObservationActionFactory extends ActionFactory<TriggerObserv
     );
     @Override
     public TriggerObservationAction create(MoreActionSDK sdk, ActionProperties properties) throws ConfigurationValidationException {
-        return new TriggerObservationAction(sdk, validate(properties));
+        return createValidated(sdk, validate(properties));
+    }
+
+    @Override
+    public TriggerObservationAction createValidated(MoreActionSDK sdk, ActionProperties properties) throws ConfigurationValidationException {
+        return new TriggerObservationAction(sdk, properties);
     }
 
     @Override
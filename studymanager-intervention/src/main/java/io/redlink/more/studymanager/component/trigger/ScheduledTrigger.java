@@ -23,19 +23,26 @@ import java.util.stream.Collectors;
 
 public class ScheduledTrigger extends Trigger<TriggerProperties> {
 
+    private static final String SCHEDULE_ID = "scheduleId";
+
     protected ScheduledTrigger(MoreTriggerSDK sdk, TriggerProperties properties) throws ConfigurationValidationException {
         super(sdk, properties);
     }
 
     @Override
     public void activate() {
+        // adding the same schedule again keeps the existing one, so activation is idempotent
         String schedule = sdk.addSchedule(new CronSchedule(properties.getString("cronSchedule")));
-        sdk.setValue("scheduleId", schedule);
+        sdk.getValue(SCHEDULE_ID, String.class)
+                .filter(previous -> !previous.equals(schedule))
+                .ifPresent(sdk::removeSchedule);
+        sdk.setValue(SCHEDULE_ID, schedule);
     }
 
     @Override
     public void deactivate() {
-        sdk.getValue("scheduleId", String.class).ifPresent(sdk::removeSchedule);
+        sdk.getValue(SCHEDULE_ID, String.class).ifPresent(sdk::removeSchedule);
+        sdk.removeValue(SCHEDULE_ID);
     }
 
     @Override
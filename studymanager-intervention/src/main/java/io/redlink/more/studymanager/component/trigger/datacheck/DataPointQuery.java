@@ -8,6 +8,8 @@
  */
 package io.redlink.more.studymanager.component.trigger.datacheck;
 
+import io.redlink.more.studymanager.core.io.DataQuery;
+
 public class DataPointQuery {
     private int observationId;
     private String observationType;
@@ -38,6 +40,12 @@ public class DataPointQuery {
         return propertyValue;
     }
 
+    public DataQuery toDataQuery() {
+        return new DataQuery.Condition(observationId, observationProperty,
+                DataQuery.Operator.fromSymbol(operator),
+                propertyValue instanceof String p ? p.trim() : propertyValue);
+    }
+
     public String toQueryString() {
         return "(observation_id.keyword:" + observationId +
                 " AND " + getDataSelector() + ")";
@@ -8,6 +8,10 @@
  */
 package io.redlink.more.studymanager.component.trigger.datacheck;
 
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import io.redlink.more.studymanager.core.io.DataQuery;
+
+import java.util.LinkedHashSet;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -31,8 +35,13 @@ public class QueryObject {
 
     public GroupCondition nextGroupCondition;
 
+    @JsonDeserialize(as = LinkedHashSet.class)
     public Set<DataPointQuery> parameter;
 
+    public DataQuery toDataQuery() {
+        return new DataQuery.All(parameter.stream().map(DataPointQuery::toDataQuery).toList());
+    }
+
     public String toQueryString() {
         return "(" + parameter.stream().map(DataPointQuery::toQueryString).collect(Collectors.joining(" AND ")) + ")";
     }
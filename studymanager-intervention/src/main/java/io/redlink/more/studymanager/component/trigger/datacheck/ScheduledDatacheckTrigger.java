@@ -16,6 +16,11 @@ import io.redlink.more.studymanager.core.sdk.schedule.CronSchedule;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -25,18 +30,47 @@ public class ScheduledDatacheckTrigger extends Trigger<ScheduledDatacheckTrigger
 
     private static final String SCHEDULE_ID = "scheduleId";
 
+    private static final String CONFIG_HASH = "configHash";
+
+    private static final String ACTIVE_PREFIX = "active_";
+
+    private static final String WATERMARK = "watermark";
+
+    private static final String LATEST_MATCH_PREFIX = "latestMatch_";
+
+    /**
+     * Datapoints become searchable some time after their storage_date is set,
+     * so each incremental evaluation re-scans this period of the previous one.
+     */
+    private static final Duration WATERMARK_OVERLAP = Duration.ofMinutes(5);
+
+    /** compiled lazily and kept, the trigger-instance is re-used for all fires of the same configuration */
+    private volatile Optional<DataQuery> dataQuery;
+
     protected ScheduledDatacheckTrigger(MoreTriggerSDK sdk, ScheduledDatacheckTriggerProperties properties) {
         super(sdk, properties);
     }
 
     @Override
     public void activate() {
-        sdk.participantIds(MorePlatformSDK.ParticipantFilter.ALL).forEach(id -> setParticipantActive(id, false));
+        // the state of previous evaluations is only valid for the configuration it was created with
+        final Integer configHash = properties.hashCode();
+        if (sdk.getValue(CONFIG_HASH, Integer.class).filter(configHash::equals).isEmpty()) {
+            sdk.removeValue(WATERMARK);
+            sdk.removeValues(LATEST_MATCH_PREFIX);
+            sdk.setValues(sdk.participantIds(MorePlatformSDK.ParticipantFilter.ALL).stream()
+                    .collect(Collectors.toMap(ScheduledDatacheckTrigger::activeKey, id -> false)));
+            sdk.setValue(CONFIG_HASH, configHash);
+        }
 
+        // adding the same schedule again keeps the existing one, so activation is idempotent
         properties.getCronSchedule()
                 .map(CronSchedule::new)
                 .map(sdk::addSchedule)
                 .ifPresent(id -> {
+                    sdk.getValue(SCHEDULE_ID, String.class)
+                            .filter(previous -> !previous.equals(id))
+                            .ifPresent(sdk::removeSchedule);
                     sdk.setValue(SCHEDULE_ID, id);
                     LOGGER.info("Activated");
                 });
@@ -45,6 +79,7 @@ public class ScheduledDatacheckTrigger extends Trigger<ScheduledDatacheckTrigger
     @Override
     public void deactivate() {
         sdk.getValue(SCHEDULE_ID, String.class).ifPresent(sdk::removeSchedule);
+        sdk.removeValue(SCHEDULE_ID);
     }
 
     @Override
@@ -60,34 +95,73 @@ public class ScheduledDatacheckTrigger extends Trigger<ScheduledDatacheckTrigger
                 .map(window -> new RelativeTimeFrame(window))
                 .orElse(null);
 
+        Map<String, Boolean> activeParticipants = onlyOnce ? sdk.getValues(ACTIVE_PREFIX, Boolean.class) : Map.of();
+        Map<String, Boolean> updates = new HashMap<>();
+
         Set<Integer> notMatchingParticipantIds = sdk.participantIds(MorePlatformSDK.ParticipantFilter.ACTIVE_ONLY);
 
-        TriggerResult result = properties.getElasticQueryString().map(query ->
+        TriggerResult result = getDataQuery().map(query ->
                 TriggerResult.withParams(
-                        sdk.participantIdsMatchingQuery(query, timeframe).stream()
+                        (properties.getIncremental().orElse(false)
+                                ? participantIdsMatchingIncrementally(query, timeframe, notMatchingParticipantIds)
+                                : sdk.participantIdsMatchingQuery(query, timeframe)).stream()
                                 .peek(notMatchingParticipantIds::remove)
-                                .filter(id -> !isParticipantActive(id, onlyOnce))
-                                .peek(id -> setParticipantActive(id, true))
+                                .filter(id -> !activeParticipants.getOrDefault(activeKey(id), false))
+                                .peek(id -> updates.put(activeKey(id), true))
                                 .map(id -> new ActionParameter(sdk.getStudyId(), id))
                                 .collect(Collectors.toSet())
                 )
         ).orElse(TriggerResult.NOOP);
 
-        notMatchingParticipantIds.forEach(id -> setParticipantActive(id, false));
+        notMatchingParticipantIds.forEach(id -> updates.put(activeKey(id), false));
+        sdk.setValues(updates);
 
         return result;
     }
 
-    public boolean isParticipantActive(int participantId, boolean onlyOnce) {
-        if(!onlyOnce) {
-            return false;
-        } else {
-            return sdk.getValue(participantId + "_active", Boolean.class).orElse(false);
+    /**
+     * Evaluates the query only on datapoints stored since the previous evaluation (the watermark).
+     * The effective time of the latest match per participant is carried forward, a participant matches
+     * as long as this time is within the window.
+     * If the query fails, the exception propagates and the watermark is kept, so no datapoints are skipped.
+     */
+    private Set<Integer> participantIdsMatchingIncrementally(DataQuery query, TimeRange timeframe, Set<Integer> activeParticipantIds) {
+        final Instant now = Instant.now();
+        final Instant storedAfter = sdk.getValue(WATERMARK, Long.class).map(Instant::ofEpochMilli).orElse(null);
+
+        final Map<String, Long> latestMatches = new HashMap<>(sdk.getValues(LATEST_MATCH_PREFIX, Long.class));
+        final Map<String, Long> updates = new HashMap<>();
+        sdk.latestMatchingDataPerParticipant(query, timeframe, storedAfter).forEach((id, latest) -> {
+            final String key = latestMatchKey(id);
+            if (latestMatches.getOrDefault(key, Long.MIN_VALUE) < latest.toEpochMilli()) {
+                latestMatches.put(key, latest.toEpochMilli());
+                updates.put(key, latest.toEpochMilli());
+            }
+        });
+        sdk.setValues(updates);
+        sdk.setValue(WATERMARK, now.minus(WATERMARK_OVERLAP).toEpochMilli());
+
+        final long windowStart = properties.getWindow()
+                .map(window -> now.minusSeconds(window).toEpochMilli())
+                .orElse(Long.MIN_VALUE);
+        return activeParticipantIds.stream()
+                .filter(id -> latestMatches.getOrDefault(latestMatchKey(id), Long.MIN_VALUE) >= windowStart)
+                .collect(Collectors.toSet());
+    }
+
+    private Optional<DataQuery> getDataQuery() {
+        if (dataQuery == null) {
+            dataQuery = properties.getDataQuery();
         }
+        return dataQuery;
+    }
+
+    private static String activeKey(int participantId) {
+        return ACTIVE_PREFIX + participantId;
     }
 
-    public void setParticipantActive(int participantId, Boolean isActive) {
-        sdk.setValue(participantId + "_active", isActive);
+    private static String latestMatchKey(int participantId) {
+        return LATEST_MATCH_PREFIX + participantId;
     }
 
 }
@@ -50,6 +50,12 @@ public class ScheduledDatacheckTriggerFactory extends TriggerFactory<ScheduledDa
                 .setDescription("intervention.factory.trigger.scheduledDatacheck.configProps.onlyOnceDesc")
         );
 
+        properties.add(new BooleanValue("incremental")
+                .setName("intervention.factory.trigger.scheduledDatacheck.configProps.incrementalName")
+                .setDefaultValue(false)
+                .setDescription("intervention.factory.trigger.scheduledDatacheck.configProps.incrementalDesc")
+        );
+
         properties.add(new DatacheckQueryValue("queryObject")
                 .setName("intervention.factory.trigger.scheduled.configProps.queryObjName")
                 .setDescription("intervention.factory.trigger.scheduled.configProps.queryObjDesc")
@@ -9,8 +9,12 @@
 package io.redlink.more.studymanager.component.trigger.datacheck;
 
 import com.fasterxml.jackson.core.type.TypeReference;
+import io.redlink.more.studymanager.core.io.DataQuery;
 import io.redlink.more.studymanager.core.properties.TriggerProperties;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -24,7 +28,10 @@ public class ScheduledDatacheckTriggerProperties extends TriggerProperties {
         return Optional.ofNullable(this.getString("cronSchedule"));
     }
 
-    public Optional<Set<QueryObject>> getQueryObject() {return this.getObject("queryObject", new TypeReference<>() {});}
+    public Optional<Set<QueryObject>> getQueryObject() {
+        // the order of the groups is relevant for combining them
+        return this.getObject("queryObject", new TypeReference<LinkedHashSet<QueryObject>>() {}).map(groups -> groups);
+    }
 
     public Optional<Long> getWindow() {
         return Optional.ofNullable(this.getLong("window"));
@@ -34,10 +41,35 @@ public class ScheduledDatacheckTriggerProperties extends TriggerProperties {
         return Optional.ofNullable(this.getBoolean("onlyOnce"));
     }
 
+    public Optional<Boolean> getIncremental() {
+        return Optional.ofNullable(this.getBoolean("incremental"));
+    }
+
     public Optional<String> getElasticQueryString() {
         return this.getQueryObject().map(o -> o.stream()
                 .map(qo ->
                         qo.toQueryString() + (qo.nextGroupCondition != null ? " " + qo.nextGroupCondition.value() : ""))
                 .collect(Collectors.joining(" ")));
     }
+
+    /**
+     * The query-groups as structured query. Groups are combined in order, {@code and} binds stronger than {@code or}.
+     */
+    public Optional<DataQuery> getDataQuery() {
+        return this.getQueryObject().map(groups -> {
+            final List<DataQuery> alternatives = new ArrayList<>();
+            List<DataQuery> conjunction = new ArrayList<>();
+            for (QueryObject group : groups) {
+                conjunction.add(group.toDataQuery());
+                if (group.nextGroupCondition != QueryObject.GroupCondition.and) {
+                    alternatives.add(conjunction.size() == 1 ? conjunction.get(0) : new DataQuery.All(conjunction));
+                    conjunction = new ArrayList<>();
+                }
+            }
+            if (!conjunction.isEmpty()) {
+                alternatives.add(conjunction.size() == 1 ? conjunction.get(0) : new DataQuery.All(conjunction));
+            }
+            return alternatives.size() == 1 ? alternatives.get(0) : new DataQuery.Any(alternatives);
+        });
+    }
 }
@@ -10,6 +10,7 @@ package io.redlink.more.studymanager.component.trigger.datacheck;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.io.Resources;
+import io.redlink.more.studymanager.core.io.DataQuery;
 import io.redlink.more.studymanager.core.properties.TriggerProperties;
 import org.junit.jupiter.api.Test;
 
@@ -30,4 +31,23 @@ class ScheduledDatacheckTriggerPropertiesTest {
 
         assertTrue(properties.getElasticQueryString().get().contains("observation_id.keyword:17 AND data_y:23"));
     }
+
+    @Test
+    void getDataQuery() throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        TriggerProperties tp = mapper.readValue(
+                Resources.getResource("ScheduledDatacheckTriggerProperties.json"),
+                TriggerProperties.class
+        );
+        ScheduledDatacheckTriggerProperties properties = new ScheduledDatacheckTriggerProperties(tp);
+
+        DataQuery query = properties.getDataQuery().orElseThrow();
+        DataQuery.Any groups = assertInstanceOf(DataQuery.Any.class, query);
+        assertEquals(2, groups.queries().size());
+        DataQuery.All first = assertInstanceOf(DataQuery.All.class, groups.queries().get(0));
+        assertTrue(first.queries().contains(new DataQuery.Condition(17, "y", DataQuery.Operator.EQ, 23)));
+        assertTrue(first.queries().contains(new DataQuery.Condition(17, "x", DataQuery.Operator.GT, 75)));
+
+        assertEquals(query, new ScheduledDatacheckTriggerProperties(tp).getDataQuery().orElseThrow());
+    }
 }
@@ -0,0 +1,146 @@
+/*
+ * Copyright LBI-DHP and/or licensed to LBI-DHP under one or more
+ * contributor license agreements (LBI-DHP: Ludwig Boltzmann Institute
+ * for Digital Health and Prevention -- A research institute of the
+ * Ludwig Boltzmann Gesellschaft, Österreichische Vereinigung zur
+ * Förderung der wissenschaftlichen Forschung).
+ * Licensed under the Elastic License 2.0.
+ */
+package io.redlink.more.studymanager.component.trigger.datacheck;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.io.Resources;
+import io.redlink.more.studymanager.core.io.ActionParameter;
+import io.redlink.more.studymanager.core.io.Parameters;
+import io.redlink.more.studymanager.core.io.TriggerResult;
+import io.redlink.more.studymanager.core.properties.TriggerProperties;
+import io.redlink.more.studymanager.core.sdk.MoreTriggerSDK;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+class ScheduledDatacheckTriggerTest {
+
+    private final Map<String, Serializable> values = new HashMap<>();
+
+    private MoreTriggerSDK sdk;
+
+    private ScheduledDatacheckTrigger trigger;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        sdk = mock(MoreTriggerSDK.class);
+        // participant-values are kept in memory
+        doAnswer(i -> values.put(i.getArgument(0), i.getArgument(1))).when(sdk).setValue(anyString(), any());
+        when(sdk.getValue(anyString(), any())).thenAnswer(i -> Optional.ofNullable(values.get(i.<String>getArgument(0))));
+        doAnswer(i -> values.remove(i.<String>getArgument(0))).when(sdk).removeValue(anyString());
+        doAnswer(i -> {
+            values.putAll(i.getArgument(0));
+            return null;
+        }).when(sdk).setValues(anyMap());
+        when(sdk.getValues(anyString(), any())).thenAnswer(i -> values.entrySet().stream()
+                .filter(e -> e.getKey().startsWith(i.getArgument(0)))
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue)));
+        doAnswer(i -> values.keySet().removeIf(k -> k.startsWith(i.getArgument(0)))).when(sdk).removeValues(anyString());
+        when(sdk.participantIds(any())).thenAnswer(i -> new HashSet<>(Set.of(1, 2, 3)));
+        when(sdk.getStudyId()).thenReturn(1L);
+
+        TriggerProperties tp = new ObjectMapper().readValue(
+                Resources.getResource("ScheduledDatacheckTriggerProperties.json"),
+                TriggerProperties.class
+        );
+        tp.put("incremental", true);
+        tp.put("window", 3600);
+        trigger = new ScheduledDatacheckTrigger(sdk, new ScheduledDatacheckTriggerProperties(tp));
+    }
+
+    @Test
+    void testMatchesAreCarriedForward() {
+        when(sdk.latestMatchingDataPerParticipant(any(), any(), isNull()))
+                .thenReturn(Map.of(1, Instant.now().minus(Duration.ofMinutes(10))));
+        assertEquals(Set.of(1), participantIds(trigger.execute(new Parameters())));
+
+        final Long watermark = (Long) values.get("watermark");
+        assertNotNull(watermark);
+
+        // nothing new stored since the previous evaluation, participant 1 still matches within the window
+        when(sdk.latestMatchingDataPerParticipant(any(), any(), eq(Instant.ofEpochMilli(watermark))))
+                .thenReturn(Map.of(2, Instant.now()));
+        assertEquals(Set.of(1, 2), participantIds(trigger.execute(new Parameters())));
+    }
+
+    @Test
+    void testMatchesExpireWithWindow() {
+        values.put("watermark", Instant.now().minus(Duration.ofMinutes(1)).toEpochMilli());
+        values.put("latestMatch_1", Instant.now().minus(Duration.ofHours(2)).toEpochMilli());
+        values.put("latestMatch_2", Instant.now().minus(Duration.ofMinutes(30)).toEpochMilli());
+        when(sdk.latestMatchingDataPerParticipant(any(), any(), any())).thenReturn(Map.of());
+
+        assertEquals(Set.of(2), participantIds(trigger.execute(new Parameters())));
+    }
+
+    @Test
+    void testFailedQueryKeepsWatermark() {
+        final long watermark = Instant.now().minus(Duration.ofHours(1)).toEpochMilli();
+        values.put("watermark", watermark);
+        when(sdk.latestMatchingDataPerParticipant(any(), any(), any())).thenThrow(new IllegalStateException("elastic unavailable"));
+
+        assertThrows(IllegalStateException.class, () -> trigger.execute(new Parameters()));
+        assertEquals(watermark, values.get("watermark"));
+    }
+
+    @Test
+    void testActivateResetsIncrementalState() {
+        values.put("configHash", 42);
+        values.put("watermark", Instant.now().toEpochMilli());
+        values.put("latestMatch_1", Instant.now().toEpochMilli());
+        values.put("active_1", true);
+
+        trigger.activate();
+
+        assertFalse(values.containsKey("watermark"));
+        assertFalse(values.containsKey("latestMatch_1"));
+        assertEquals(false, values.get("active_1"));
+        verify(sdk, never()).addSchedule(any());
+    }
+
+    @Test
+    void testReactivateKeepsIncrementalState() {
+        trigger.activate();
+
+        final long watermark = Instant.now().toEpochMilli();
+        values.put("watermark", watermark);
+        values.put("latestMatch_1", watermark);
+        values.put("active_1", true);
+
+        trigger.activate();
+
+        assertEquals(watermark, values.get("watermark"));
+        assertEquals(watermark, values.get("latestMatch_1"));
+        assertEquals(true, values.get("active_1"));
+    }
+
+    private static Set<Integer> participantIds(TriggerResult result) {
+        return result.getActionParameters().stream()
+                .map(ActionParameter::getParticipantId)
+                .collect(Collectors.toSet());
+    }
+}
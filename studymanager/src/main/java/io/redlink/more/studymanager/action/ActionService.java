@@ -11,75 +11,93 @@ package io.redlink.more.studymanager.action;
 import io.redlink.more.studymanager.core.component.Action;
 import io.redlink.more.studymanager.core.factory.ActionFactory;
 import io.redlink.more.studymanager.core.io.ActionParameter;
+import io.redlink.more.studymanager.scheduling.ExecutionPlanService;
 import io.redlink.more.studymanager.sdk.MoreSDK;
-import io.redlink.more.studymanager.service.InterventionService;
+import io.redlink.more.studymanager.sdk.PushNotificationBatch;
 import io.redlink.more.studymanager.utils.LoggingUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.slf4j.MDC;
 import org.springframework.stereotype.Component;
 
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @Component
 public class ActionService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ActionService.class);
 
-    private final InterventionService interventionService;
-
-    private final Map<String, ActionFactory> actionFactories;
-
     private final MoreSDK moreSDK;
 
     private final ActionWorker worker;
 
     public ActionService(
-            InterventionService interventionService,
-            Map<String, ActionFactory> actionFactories,
             MoreSDK moreSDK,
             ActionWorker worker) {
-        this.interventionService = interventionService;
-        this.actionFactories = actionFactories;
         this.moreSDK = moreSDK;
         this.worker = worker;
     }
 
-    public void execute(long studyId, Integer studyGroupId, int interventionId, Set<ActionParameter> parameters) {
+    /**
+     * Execute all actions of the execution-plan for the provided parameters.
+     * Returns when all actions of this trigger-fire have completed; the push-notifications of the actions
+     * are collected and sent together afterwards.
+     */
+    public void execute(ExecutionPlanService.ExecutionPlan plan, Set<ActionParameter> parameters) {
         if (parameters == null) {
             return;
         }
-        this.interventionService.listActions(studyId, interventionId)
-                .forEach(action -> executeAction(studyId, studyGroupId, interventionId, parameters, action));
+        final long studyId = plan.studyId();
+        final int interventionId = plan.interventionId();
+        final List<CompletableFuture<Void>> executions = new ArrayList<>();
+        final PushNotificationBatch notifications = new PushNotificationBatch();
+        plan.actions()
+                .forEach(action -> executeAction(studyId, plan.studyGroupId(), interventionId, parameters, action, notifications, executions));
+
+        CompletableFuture.allOf(executions.toArray(CompletableFuture[]::new)).join();
+        LOGGER.debug("Executed {} actions for intervention_{} in study_{}", executions.size(), interventionId, studyId);
+
+        try {
+            final int sent = notifications.send(moreSDK, studyId);
+            LOGGER.debug("Sent {} push-notifications for intervention_{} in study_{}", sent, interventionId, studyId);
+        } catch (RuntimeException e) {
+            LOGGER.warn("Error sending push-notifications for intervention_{} in study_{}: {}",
+                    interventionId, studyId, e.getMessage(), e);
+        }
     }
 
     private void executeAction(long studyId, Integer studyGroupId, int interventionId, Set<ActionParameter> parameters,
-                               io.redlink.more.studymanager.model.Action action) {
+                               ExecutionPlanService.ActionPlan actionPlan, PushNotificationBatch notifications,
+                               List<CompletableFuture<Void>> executions) {
+        final io.redlink.more.studymanager.model.Action action = actionPlan.action();
+        final ActionFactory factory = actionPlan.factory();
         try (var ctx = LoggingUtils.createContext()) {
             ctx.putAction(action);
-            ActionFactory factory = actionFactories.get(action.getType());
-
-            if (factory == null) {
-                LOGGER.error("Skipping action_{} from intervention_{} in study_{}: No factory found for actionType {}",
-                        action.getActionId(), interventionId, studyId, action.getType());
-                return;
-            }
 
             parameters.forEach(parameter -> {
                 ctx.putParticipant(parameter.getParticipantId());
-                Action executable = factory.create(
+                Action executable = factory.createValidated(
                         moreSDK.scopedActionSDK(
-                                studyId, studyGroupId, interventionId, action.getActionId(), action.getType(), parameter.getParticipantId()
+                                studyId, studyGroupId, interventionId, action.getActionId(), action.getType(), parameter.getParticipantId(),
+                                notifications
                         ),
-                        action.getProperties()
+                        actionPlan.properties()
                 );
+                CompletableFuture<Void> execution;
                 try {
-                    worker.execute(executable, parameter);
-                } catch (Exception e) {
+                    execution = worker.execute(studyId, action.getType(), executable, parameter);
+                } catch (RuntimeException e) {
+                    execution = CompletableFuture.failedFuture(e);
+                }
+                executions.add(execution.exceptionally(t -> {
+                    final Throwable e = t instanceof CompletionException && t.getCause() != null ? t.getCause() : t;
                     LOGGER.warn("Error executing action_{} [{}] from intervention_{} in study_{}: {}",
                             action.getActionId(), action.getType(), interventionId, studyId, e.getMessage(), e);
-                }
+                    return null;
+                }));
             });
         }
     }
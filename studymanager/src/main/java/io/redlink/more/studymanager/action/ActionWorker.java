@@ -8,16 +8,119 @@
  */
 package io.redlink.more.studymanager.action;
 
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import io.redlink.more.studymanager.core.component.Action;
 import io.redlink.more.studymanager.core.io.ActionParameter;
-import org.springframework.scheduling.annotation.Async;
+import io.redlink.more.studymanager.properties.ActionExecutionProperties;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.MDC;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Component;
 
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Executes actions on a bounded worker-pool.
+ * <p>
+ * The number of concurrently running actions per study is limited, so a large study can not
+ * occupy all workers. When the limit is reached, the submitting thread waits for a free slot.
+ * When all workers are busy and the queue is full, the submitting thread executes the action itself.
+ */
 @Component
+@EnableConfigurationProperties(ActionExecutionProperties.class)
 public class ActionWorker {
 
-    //@Async
-    public void execute(Action action, ActionParameter parameter) {
-        action.execute(parameter);
+    private final ActionExecutionProperties properties;
+
+    private final ThreadPoolTaskExecutor executor;
+
+    private final Map<Long, Semaphore> studyPermits = new ConcurrentHashMap<>();
+
+    private final MeterRegistry meterRegistry;
+
+    public ActionWorker(ActionExecutionProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+
+        this.executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("action-worker-");
+        executor.setCorePoolSize(properties.threads());
+        executor.setMaxPoolSize(properties.threads());
+        executor.setQueueCapacity(properties.queueCapacity());
+        executor.setRejectedExecutionHandler(ActionWorker::runInCaller);
+        executor.setTaskDecorator(ActionWorker::withLoggingContext);
+        executor.initialize();
+
+        Gauge.builder("more.actions.queued", executor, e -> e.getThreadPoolExecutor().getQueue().size())
+                .description("Actions waiting for a worker")
+                .register(meterRegistry);
+        Gauge.builder("more.actions.active", executor, ThreadPoolTaskExecutor::getActiveCount)
+                .description("Actions currently executed")
+                .register(meterRegistry);
+    }
+
+    public CompletableFuture<Void> execute(long studyId, String actionType, Action action, ActionParameter parameter) {
+        final Semaphore permits = studyPermits.computeIfAbsent(studyId,
+                id -> new Semaphore(properties.maxConcurrencyPerStudy()));
+        permits.acquireUninterruptibly();
+        try {
+            return CompletableFuture.runAsync(() -> {
+                final Timer.Sample sample = Timer.start(meterRegistry);
+                String outcome = "error";
+                try {
+                    action.execute(parameter);
+                    outcome = "success";
+                } finally {
+                    permits.release();
+                    sample.stop(Timer.builder("more.actions.execution")
+                            .description("Execution time of a single action")
+                            .tag("type", actionType)
+                            .tag("outcome", outcome)
+                            .register(meterRegistry));
+                }
+            }, executor);
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private static void runInCaller(Runnable runnable, ThreadPoolExecutor executor) {
+        if (executor.isShutdown()) {
+            throw new RejectedExecutionException("ActionWorker is shut down");
+        }
+        runnable.run();
+    }
+
+    private static Runnable withLoggingContext(Runnable runnable) {
+        final Map<String, String> context = MDC.getCopyOfContextMap();
+        return () -> {
+            final Map<String, String> previous = MDC.getCopyOfContextMap();
+            if (context != null) {
+                MDC.setContextMap(context);
+            }
+            try {
+                runnable.run();
+            } finally {
+                if (previous != null) {
+                    MDC.setContextMap(previous);
+                } else {
+                    MDC.clear();
+                }
+            }
+        };
     }
 }
@@ -28,6 +28,8 @@ import java.util.List;
 @RequestMapping(value = "/api/v1", produces = MediaType.APPLICATION_JSON_VALUE)
 public class DataApiV1Controller implements DataApi {
 
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final DataProcessingService dataProcessingService;
 
     public DataApiV1Controller(DataProcessingService dataProcessingService){ this.dataProcessingService = dataProcessingService; }
@@ -35,11 +37,16 @@ public class DataApiV1Controller implements DataApi {
     @Override
     @RequiresStudyRole({StudyRole.STUDY_ADMIN, StudyRole.STUDY_VIEWER})
     public ResponseEntity<List<DataPointDTO>> getDataPoints(
-            Long studyId, Integer size, Integer observationId, Integer participantId, OffsetDateTime date
+            Long studyId, Integer size, Integer observationId, Integer participantId, OffsetDateTime date,
+            String cursor, List<String> fields
     ) {
-        return ResponseEntity.ok().body(
-                dataProcessingService.getDataPoints(studyId, size, observationId, participantId, date)
-        );
+        final DataProcessingService.DataPointPage page =
+                dataProcessingService.getDataPoints(studyId, size, observationId, participantId, date, cursor, fields);
+        final ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(page.dataPoints());
     }
 
     @Override
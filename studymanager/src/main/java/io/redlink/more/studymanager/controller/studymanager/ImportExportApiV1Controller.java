@@ -13,7 +13,9 @@ import io.redlink.more.studymanager.api.v1.model.StudyDTO;
 import io.redlink.more.studymanager.api.v1.model.StudyImportExportDTO;
 import io.redlink.more.studymanager.api.v1.webservices.ImportExportApi;
 import io.redlink.more.studymanager.controller.RequiresStudyRole;
+import io.redlink.more.studymanager.exception.BadRequestException;
 import io.redlink.more.studymanager.model.DownloadToken;
+import io.redlink.more.studymanager.model.ExportFormat;
 import io.redlink.more.studymanager.model.StudyRole;
 import io.redlink.more.studymanager.model.transformer.ImportExportTransformer;
 import io.redlink.more.studymanager.model.transformer.StudyTransformer;
@@ -94,13 +96,26 @@ public class ImportExportApiV1Controller implements ImportExportApi {
     @RequestMapping(
             method = RequestMethod.GET,
             value = "/studies/{studyId}/export/studydata/{token}",
-            produces = { "application/json" }
+            produces = { "application/json", "application/x-ndjson", "text/csv", "application/gzip" }
     )
-    public void exportStudyData(@PathVariable Long studyId, @PathVariable("token") String token, HttpServletResponse response) throws IOException {
+    public void exportStudyData(@PathVariable Long studyId, @PathVariable("token") String token,
+                                @RequestParam(value = "format", defaultValue = "json") String format,
+                                @RequestParam(value = "gzip", defaultValue = "false") boolean gzip,
+                                @RequestParam(value = "slices", defaultValue = "1") int slices,
+                                HttpServletResponse response) throws IOException {
+        final ExportFormat exportFormat = ExportFormat.fromValue(format);
+        if (slices < 1 || slices > ImportExportService.MAX_EXPORT_SLICES) {
+            throw new BadRequestException("slices must be between 1 and " + ImportExportService.MAX_EXPORT_SLICES);
+        }
         Optional<DownloadToken> dt = tokenRepository.getToken(token).filter(t -> t.getStudyId().equals(studyId));
         if(dt.isPresent()) {
-            response.setHeader("Content-Disposition", "attachment;filename=" + dt.get().getFilename());
-            service.exportStudyData(response.getOutputStream(), studyId);
+            String filename = dt.get().getFilename().replaceFirst("\\.json$", "." + exportFormat.getValue());
+            if (gzip) {
+                filename += ".gz";
+            }
+            response.setContentType(gzip ? "application/gzip" : exportFormat.getMediaType());
+            response.setHeader("Content-Disposition", "attachment;filename=" + filename);
+            service.exportStudyData(response.getOutputStream(), studyId, exportFormat, gzip, slices);
         } else {
             response.setStatus(403);
         }
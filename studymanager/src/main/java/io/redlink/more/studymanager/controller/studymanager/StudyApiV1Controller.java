@@ -9,6 +9,7 @@
 package io.redlink.more.studymanager.controller.studymanager;
 
 import io.redlink.more.studymanager.api.v1.model.StatusChangeDTO;
+import io.redlink.more.studymanager.api.v1.model.StatusChangeJobDTO;
 import io.redlink.more.studymanager.api.v1.model.StudyDTO;
 import io.redlink.more.studymanager.api.v1.webservices.StudiesApi;
 import io.redlink.more.studymanager.controller.RequiresStudyRole;
@@ -93,9 +94,21 @@ public class StudyApiV1Controller implements StudiesApi {
 
     @Override
     @RequiresStudyRole(StudyRole.STUDY_ADMIN)
-    public ResponseEntity<Void> setStatus(Long studyId, StatusChangeDTO statusChangeDTO) {
+    public ResponseEntity<StatusChangeJobDTO> setStatus(Long studyId, StatusChangeDTO statusChangeDTO) {
         final var currentUser = authService.getCurrentUser();
-        service.setStatus(studyId, StudyTransformer.fromStatusChangeDTO_V1(statusChangeDTO), currentUser);
-        return ResponseEntity.ok().build();
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(
+                StudyTransformer.toStatusChangeJobDTO_V1(
+                        service.setStatus(studyId, StudyTransformer.fromStatusChangeDTO_V1(statusChangeDTO), currentUser)
+                )
+        );
+    }
+
+    @Override
+    @RequiresStudyRole
+    public ResponseEntity<StatusChangeJobDTO> getStatusChangeJob(Long studyId, String jobId) {
+        return ResponseEntity.of(
+                service.getStatusChangeJob(studyId, jobId)
+                        .map(StudyTransformer::toStatusChangeJobDTO_V1)
+        );
     }
 }
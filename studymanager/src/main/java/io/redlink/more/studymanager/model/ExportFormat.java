@@ -0,0 +1,42 @@
+/*
+ * Copyright LBI-DHP and/or licensed to LBI-DHP under one or more
+ * contributor license agreements (LBI-DHP: Ludwig Boltzmann Institute
+ * for Digital Health and Prevention -- A research institute of the
+ * Ludwig Boltzmann Gesellschaft, Österreichische Vereinigung zur
+ * Förderung der wissenschaftlichen Forschung).
+ * Licensed under the Elastic License 2.0.
+ */
+package io.redlink.more.studymanager.model;
+
+import io.redlink.more.studymanager.exception.BadRequestException;
+
+public enum ExportFormat {
+    JSON("json", "application/json"),
+    NDJSON("ndjson", "application/x-ndjson"),
+    CSV("csv", "text/csv");
+
+    private final String value;
+    private final String mediaType;
+
+    ExportFormat(String value, String mediaType) {
+        this.value = value;
+        this.mediaType = mediaType;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    public static ExportFormat fromValue(String value) {
+        for (ExportFormat format : values()) {
+            if (format.value.equalsIgnoreCase(value)) {
+                return format;
+            }
+        }
+        throw new BadRequestException("Unsupported export format: " + value);
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright LBI-DHP and/or licensed to LBI-DHP under one or more
+ * contributor license agreements (LBI-DHP: Ludwig Boltzmann Institute
+ * for Digital Health and Prevention -- A research institute of the
+ * Ludwig Boltzmann Gesellschaft, Österreichische Vereinigung zur
+ * Förderung der wissenschaftlichen Forschung).
+ * Licensed under the Elastic License 2.0.
+ */
+package io.redlink.more.studymanager.model;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tracks the background part of a study status change: activating study-components,
+ * notifying and aligning participants.
+ */
+public class StatusChangeJob {
+
+    public enum State {
+        RUNNING, DONE, FAILED
+    }
+
+    private final String jobId = UUID.randomUUID().toString();
+    private final long studyId;
+    private final Study.Status oldStatus;
+    private final Study.Status newStatus;
+    private final Instant created = Instant.now();
+    private volatile State state = State.RUNNING;
+    private volatile Instant finished;
+    private final AtomicInteger participants = new AtomicInteger();
+    private final AtomicInteger notified = new AtomicInteger();
+    private final AtomicInteger notificationFailures = new AtomicInteger();
+    private final List<String> errors = new CopyOnWriteArrayList<>();
+
+    public StatusChangeJob(long studyId, Study.Status oldStatus, Study.Status newStatus) {
+        this.studyId = studyId;
+        this.oldStatus = oldStatus;
+        this.newStatus = newStatus;
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public long getStudyId() {
+        return studyId;
+    }
+
+    public Study.Status getOldStatus() {
+        return oldStatus;
+    }
+
+    public Study.Status getNewStatus() {
+        return newStatus;
+    }
+
+    public Instant getCreated() {
+        return created;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public Instant getFinished() {
+        return finished;
+    }
+
+    public int getParticipants() {
+        return participants.get();
+    }
+
+    public int getNotified() {
+        return notified.get();
+    }
+
+    public int getNotificationFailures() {
+        return notificationFailures.get();
+    }
+
+    public List<String> getErrors() {
+        return List.copyOf(errors);
+    }
+
+    public boolean isRunning() {
+        return state == State.RUNNING;
+    }
+
+    public StatusChangeJob setParticipants(int participants) {
+        this.participants.set(participants);
+        return this;
+    }
+
+    public StatusChangeJob addNotified(int notified, int failures) {
+        this.notified.addAndGet(notified);
+        this.notificationFailures.addAndGet(failures);
+        return this;
+    }
+
+    public StatusChangeJob addError(String error) {
+        this.errors.add(error);
+        return this;
+    }
+
+    public StatusChangeJob done() {
+        return finish(State.DONE);
+    }
+
+    public StatusChangeJob failed(String error) {
+        addError(error);
+        return finish(State.FAILED);
+    }
+
+    private StatusChangeJob finish(State state) {
+        this.finished = Instant.now();
+        this.state = state;
+        return this;
+    }
+}
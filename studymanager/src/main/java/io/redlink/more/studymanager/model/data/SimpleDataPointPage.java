@@ -0,0 +1,20 @@
+/*
+ * Copyright LBI-DHP and/or licensed to LBI-DHP under one or more
+ * contributor license agreements (LBI-DHP: Ludwig Boltzmann Institute
+ * for Digital Health and Prevention -- A research institute of the
+ * Ludwig Boltzmann Gesellschaft, Österreichische Vereinigung zur
+ * Förderung der wissenschaftlichen Forschung).
+ * Licensed under the Elastic License 2.0.
+ */
+package io.redlink.more.studymanager.model.data;
+
+import java.util.List;
+
+/**
+ * A page of {@link SimpleDataPoint}s, {@code nextCursor} is {@code null} on the last page.
+ */
+public record SimpleDataPointPage(
+        List<SimpleDataPoint> dataPoints,
+        String nextCursor
+) {
+}
@@ -10,6 +10,7 @@ package io.redlink.more.studymanager.model.transformer;
 
 import io.redlink.more.studymanager.api.v1.model.*;
 import io.redlink.more.studymanager.model.Contact;
+import io.redlink.more.studymanager.model.StatusChangeJob;
 import io.redlink.more.studymanager.model.Study;
 import io.redlink.more.studymanager.model.scheduler.Duration;
 
@@ -62,4 +63,19 @@ public class StudyTransformer {
     public static Study.Status fromStatusChangeDTO_V1(StatusChangeDTO statusChangeDTO) {
         return Study.Status.valueOf(statusChangeDTO.getStatus().getValue().toUpperCase());
     }
+
+    public static StatusChangeJobDTO toStatusChangeJobDTO_V1(StatusChangeJob job) {
+        return new StatusChangeJobDTO()
+                .jobId(job.getJobId())
+                .studyId(job.getStudyId())
+                .oldStatus(StudyStatusDTO.fromValue(job.getOldStatus().getValue()))
+                .newStatus(StudyStatusDTO.fromValue(job.getNewStatus().getValue()))
+                .state(StatusChangeJobDTO.StateEnum.fromValue(job.getState().name().toLowerCase()))
+                .participants(job.getParticipants())
+                .notified(job.getNotified())
+                .notificationFailures(job.getNotificationFailures())
+                .errors(job.getErrors())
+                .created(Transformers.toOffsetDateTime(job.getCreated()))
+                .finished(Transformers.toOffsetDateTime(job.getFinished()));
+    }
 }
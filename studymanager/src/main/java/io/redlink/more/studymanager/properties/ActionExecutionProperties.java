@@ -0,0 +1,33 @@
+/*
+ * Copyright LBI-DHP and/or licensed to LBI-DHP under one or more
+ * contributor license agreements (LBI-DHP: Ludwig Boltzmann Institute
+ * for Digital Health and Prevention -- A research institute of the
+ * Ludwig Boltzmann Gesellschaft, Österreichische Vereinigung zur
+ * Förderung der wissenschaftlichen Forschung).
+ * Licensed under the Elastic License 2.0.
+ */
+package io.redlink.more.studymanager.properties;
+
+import java.util.Objects;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for the execution of intervention-actions.
+ *
+ * @param threads number of worker-threads shared by all studies
+ * @param queueCapacity number of actions waiting for a worker; once full, the submitting thread executes the action itself
+ * @param maxConcurrencyPerStudy max number of actions of a single study executed in parallel
+ */
+@ConfigurationProperties(prefix = "more.actions")
+public record ActionExecutionProperties(
+        Integer threads,
+        Integer queueCapacity,
+        Integer maxConcurrencyPerStudy
+) {
+
+    public ActionExecutionProperties {
+        threads = Objects.requireNonNullElse(threads, 8);
+        queueCapacity = Objects.requireNonNullElse(queueCapacity, 1000);
+        maxConcurrencyPerStudy = Objects.requireNonNullElse(maxConcurrencyPerStudy, 4);
+    }
+}
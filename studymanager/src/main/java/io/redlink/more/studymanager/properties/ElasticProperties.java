@@ -9,7 +9,11 @@
 package io.redlink.more.studymanager.properties;
 
 import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Objects;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
 
 @ConfigurationProperties(prefix = "elastic")
 public record ElasticProperties(
@@ -18,5 +22,103 @@ public record ElasticProperties(
         int port,
         String username,
         String password,
-        String numberOfShards
-) { }
+        String numberOfShards,
+        BulkProperties bulk,
+        QueryProperties query,
+        StorageProperties storage,
+        ExportProperties export
+) {
+
+    public ElasticProperties {
+        bulk = Objects.requireNonNullElse(bulk, new BulkProperties(null, null, null, null, null, null));
+        query = Objects.requireNonNullElse(query, new QueryProperties(null));
+        storage = Objects.requireNonNullElse(storage, new StorageProperties(null, null, null));
+        export = Objects.requireNonNullElse(export, new ExportProperties(null, null));
+    }
+
+    /**
+     * Settings for the bulk-ingest pipeline used to store datapoints.
+     *
+     * @param maxOperations flush the buffer once it holds this many operations
+     * @param maxSize flush the buffer once its estimated request-size exceeds this limit
+     * @param flushInterval flush the buffer at least this often
+     * @param maxConcurrentRequests max number of in-flight bulk requests; once reached,
+     *                              adding datapoints blocks until a request completes (backpressure)
+     * @param maxRetries how often a failed datapoint is re-submitted before it is dropped
+     * @param retryBackoff initial delay before a retry, doubled on every further attempt
+     */
+    public record BulkProperties(
+            Integer maxOperations,
+            DataSize maxSize,
+            Duration flushInterval,
+            Integer maxConcurrentRequests,
+            Integer maxRetries,
+            Duration retryBackoff
+    ) {
+        public BulkProperties {
+            maxOperations = Objects.requireNonNullElse(maxOperations, 1000);
+            maxSize = Objects.requireNonNullElse(maxSize, DataSize.ofMegabytes(5));
+            flushInterval = Objects.requireNonNullElse(flushInterval, Duration.ofSeconds(1));
+            maxConcurrentRequests = Objects.requireNonNullElse(maxConcurrentRequests, 2);
+            maxRetries = Objects.requireNonNullElse(maxRetries, 3);
+            retryBackoff = Objects.requireNonNullElse(retryBackoff, Duration.ofMillis(500));
+        }
+    }
+
+    /**
+     * Settings for queries against the datapoint-indices.
+     *
+     * @param aggregationPageSize number of buckets fetched per request when paging through composite aggregations
+     */
+    public record QueryProperties(
+            Integer aggregationPageSize
+    ) {
+        public QueryProperties {
+            aggregationPageSize = Objects.requireNonNullElse(aggregationPageSize, 1000);
+        }
+    }
+
+    /**
+     * Settings for the storage-layout of the datapoints.
+     *
+     * @param layout {@code PER_STUDY} stores every study in its own index {@code study_<id>},
+     *               {@code SHARED} stores all studies in one index routed by study, {@code study_<id>} is a filtered alias
+     * @param sharedIndex name of the index holding all studies with the {@code SHARED} layout
+     * @param migrateOnStartup with the {@code SHARED} layout, move existing per-study indices into the shared index on startup;
+     *                         writes to a study are rejected while it is migrated
+     */
+    public record StorageProperties(
+            Layout layout,
+            String sharedIndex,
+            Boolean migrateOnStartup
+    ) {
+        public StorageProperties {
+            layout = Objects.requireNonNullElse(layout, Layout.PER_STUDY);
+            sharedIndex = Objects.requireNonNullElse(sharedIndex, "more-study-data");
+            migrateOnStartup = Objects.requireNonNullElse(migrateOnStartup, false);
+        }
+    }
+
+    /**
+     * Settings for the sliced export of study-data.
+     *
+     * @param threads number of threads, shared by all exports, reading the additional slices;
+     *                further slices wait for a free thread
+     * @param spoolDirectory directory for the temporary files buffering the additional slices until they are written;
+     *                       needs free space for the uncompressed NDJSON of all but the first slice of the exports running
+     *                       at the same time, i.e. roughly the size of these studies in elastic
+     */
+    public record ExportProperties(
+            Integer threads,
+            Path spoolDirectory
+    ) {
+        public ExportProperties {
+            threads = Objects.requireNonNullElse(threads, 4);
+            spoolDirectory = Objects.requireNonNullElse(spoolDirectory, Path.of(System.getProperty("java.io.tmpdir")));
+        }
+    }
+
+    public enum Layout {
+        PER_STUDY, SHARED
+    }
+}
@@ -0,0 +1,27 @@
+/*
+ * Copyright LBI-DHP and/or licensed to LBI-DHP under one or more
+ * contributor license agreements (LBI-DHP: Ludwig Boltzmann Institute
+ * for Digital Health and Prevention -- A research institute of the
+ * Ludwig Boltzmann Gesellschaft, Österreichische Vereinigung zur
+ * Förderung der wissenschaftlichen Forschung).
+ * Licensed under the Elastic License 2.0.
+ */
+package io.redlink.more.studymanager.properties;
+
+import java.util.Objects;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for re-activating the interventions of active studies on startup.
+ *
+ * @param threads number of studies activated in parallel
+ */
+@ConfigurationProperties(prefix = "more.startup-activation")
+public record StartupActivationProperties(
+        Integer threads
+) {
+
+    public StartupActivationProperties {
+        threads = Objects.requireNonNullElse(threads, 4);
+    }
+}
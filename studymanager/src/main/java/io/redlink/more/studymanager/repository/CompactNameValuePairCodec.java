@@ -0,0 +1,115 @@
+/*
+ * Copyright LBI-DHP and/or licensed to LBI-DHP under one or more
+ * contributor license agreements (LBI-DHP: Ludwig Boltzmann Institute
+ * for Digital Health and Prevention -- A research institute of the
+ * Ludwig Boltzmann Gesellschaft, Österreichische Vereinigung zur
+ * Förderung der wissenschaftlichen Forschung).
+ * Licensed under the Elastic License 2.0.
+ */
+package io.redlink.more.studymanager.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import io.redlink.more.studymanager.utils.MapperUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.util.SerializationUtils;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Stores booleans, numbers and strings in a compact tagged binary format and records as JSON.
+ * Any other value falls back to Java serialization.
+ * <p>
+ * Values written with Java serialization (including all values stored before this codec was introduced)
+ * are detected by the serialization stream-header and read transparently.
+ */
+@Component
+public class CompactNameValuePairCodec implements NameValuePairCodec {
+
+    /** first byte of the Java serialization stream-header (0xACED) */
+    private static final byte JAVA_SERIALIZATION = (byte) 0xAC;
+
+    static final byte TYPE_BOOLEAN = 0x01;
+    static final byte TYPE_INTEGER = 0x02;
+    static final byte TYPE_LONG = 0x03;
+    static final byte TYPE_DOUBLE = 0x04;
+    static final byte TYPE_STRING = 0x05;
+    static final byte TYPE_RECORD = 0x06;
+
+    @Override
+    public byte[] encode(Serializable value) {
+        if (value instanceof Boolean b) {
+            return new byte[]{TYPE_BOOLEAN, (byte) (b ? 1 : 0)};
+        } else if (value instanceof Integer i) {
+            return ByteBuffer.allocate(1 + Integer.BYTES).put(TYPE_INTEGER).putInt(i).array();
+        } else if (value instanceof Long l) {
+            return ByteBuffer.allocate(1 + Long.BYTES).put(TYPE_LONG).putLong(l).array();
+        } else if (value instanceof Double d) {
+            return ByteBuffer.allocate(1 + Double.BYTES).put(TYPE_DOUBLE).putDouble(d).array();
+        } else if (value instanceof String s) {
+            return tagged(TYPE_STRING, s.getBytes(StandardCharsets.UTF_8));
+        } else if (value != null && value.getClass().isRecord()) {
+            return encodeRecord(value);
+        }
+        return SerializationUtils.serialize(value);
+    }
+
+    @Override
+    public <T extends Serializable> T decode(byte[] data, Class<T> tClass) {
+        if (data == null || data.length == 0) {
+            return null;
+        }
+        return tClass.cast(switch (data[0]) {
+            case JAVA_SERIALIZATION -> SerializationUtils.deserialize(data);
+            case TYPE_BOOLEAN -> data[1] != 0;
+            case TYPE_INTEGER -> ByteBuffer.wrap(data, 1, Integer.BYTES).getInt();
+            case TYPE_LONG -> ByteBuffer.wrap(data, 1, Long.BYTES).getLong();
+            case TYPE_DOUBLE -> ByteBuffer.wrap(data, 1, Double.BYTES).getDouble();
+            case TYPE_STRING -> new String(data, 1, data.length - 1, StandardCharsets.UTF_8);
+            case TYPE_RECORD -> decodeRecord(data, tClass);
+            default -> throw new IllegalArgumentException("Unknown value type " + data[0]);
+        });
+    }
+
+    private static byte[] encodeRecord(Serializable value) {
+        try {
+            final byte[] type = value.getClass().getName().getBytes(StandardCharsets.UTF_8);
+            final byte[] json = MapperUtils.MAPPER.writeValueAsBytes(value);
+            return ByteBuffer.allocate(1 + Short.BYTES + type.length + json.length)
+                    .put(TYPE_RECORD)
+                    .putShort((short) type.length)
+                    .put(type)
+                    .put(json)
+                    .array();
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot encode " + value.getClass().getName(), e);
+        }
+    }
+
+    private static <T> T decodeRecord(byte[] data, Class<T> tClass) {
+        final int typeLength = ByteBuffer.wrap(data, 1, Short.BYTES).getShort();
+        final int jsonOffset = 1 + Short.BYTES + typeLength;
+        final byte[] expectedType = tClass.getName().getBytes(StandardCharsets.UTF_8);
+        // the stored type is only compared, never loaded
+        if (!Arrays.equals(data, 1 + Short.BYTES, jsonOffset, expectedType, 0, expectedType.length)) {
+            throw new ClassCastException("Cannot cast "
+                    + new String(data, 1 + Short.BYTES, typeLength, StandardCharsets.UTF_8) + " to " + tClass.getName());
+        }
+        try {
+            return MapperUtils.MAPPER.readValue(data, jsonOffset, data.length - jsonOffset, tClass);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] tagged(byte type, byte[] payload) {
+        final byte[] data = new byte[payload.length + 1];
+        data[0] = type;
+        System.arraycopy(payload, 0, data, 1, payload.length);
+        return data;
+    }
+}
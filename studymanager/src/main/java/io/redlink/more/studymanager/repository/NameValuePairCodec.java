@@ -0,0 +1,24 @@
+/*
+ * Copyright LBI-DHP and/or licensed to LBI-DHP under one or more
+ * contributor license agreements (LBI-DHP: Ludwig Boltzmann Institute
+ * for Digital Health and Prevention -- A research institute of the
+ * Ludwig Boltzmann Gesellschaft, Österreichische Vereinigung zur
+ * Förderung der wissenschaftlichen Forschung).
+ * Licensed under the Elastic License 2.0.
+ */
+package io.redlink.more.studymanager.repository;
+
+import java.io.Serializable;
+
+/**
+ * Converts the values of the {@link NameValuePairRepository} to and from their stored binary representation.
+ */
+public interface NameValuePairCodec {
+
+    byte[] encode(Serializable value);
+
+    /**
+     * @throws ClassCastException if the stored value is not of the requested type
+     */
+    <T extends Serializable> T decode(byte[] data, Class<T> tClass);
+}
@@ -11,9 +11,10 @@ package io.redlink.more.studymanager.repository;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
-import org.springframework.util.SerializationUtils;
 
 import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
 
 @Component
@@ -22,21 +23,26 @@ public class NameValuePairRepository {
     private static final String UPSERT = "INSERT INTO nvpairs(issuer,name,value) VALUES (?,?,?) ON CONFLICT(issuer,name) DO UPDATE SET value = EXCLUDED.value";
     private static final String READ = "SELECT value FROM nvpairs WHERE issuer = ? AND name = ? LIMIT 1";
     private static final String REMOVE = "DELETE FROM nvpairs WHERE issuer = ? AND name = ?";
+    private static final String READ_BY_PREFIX = "SELECT name, value FROM nvpairs WHERE issuer = ? AND name LIKE ? ESCAPE '\\'";
+    private static final String REMOVE_BY_PREFIX = "DELETE FROM nvpairs WHERE issuer = ? AND name LIKE ? ESCAPE '\\'";
 
     private final JdbcTemplate template;
 
-    public NameValuePairRepository(JdbcTemplate template) {
+    private final NameValuePairCodec codec;
+
+    public NameValuePairRepository(JdbcTemplate template, NameValuePairCodec codec) {
         this.template = template;
+        this.codec = codec;
     }
 
     public <T extends Serializable> void setValue(String issuer, String name, T value) {
-        this.template.update(UPSERT, issuer, name, SerializationUtils.serialize(value));
+        this.template.update(UPSERT, issuer, name, codec.encode(value));
     }
 
     public <T extends Serializable> Optional<T> getValue(String issuer, String name, Class<T> tClass) {
         try {
             return Optional.ofNullable(this.template.queryForObject(READ,
-                    (rs, rowNum) -> tClass.cast(SerializationUtils.deserialize(rs.getBytes("value"))),
+                    (rs, rowNum) -> codec.decode(rs.getBytes("value"), tClass),
                     issuer, name));
         } catch (EmptyResultDataAccessException e) {
             return Optional.empty();
@@ -47,6 +53,46 @@ public class NameValuePairRepository {
         this.template.update(REMOVE, issuer, name);
     }
 
+    /**
+     * Store all values of the issuer in a single batch.
+     */
+    public <T extends Serializable> void setValues(String issuer, Map<String, T> values) {
+        if (values.isEmpty()) return;
+        this.template.batchUpdate(UPSERT, values.entrySet().stream()
+                .map(e -> new Object[]{issuer, e.getKey(), codec.encode(e.getValue())})
+                .toList());
+    }
+
+    /**
+     * Read all values of the issuer whose name starts with the given prefix.
+     *
+     * @return the values by (full) name
+     */
+    public <T extends Serializable> Map<String, T> getValues(String issuer, String namePrefix, Class<T> tClass) {
+        final Map<String, T> values = new HashMap<>();
+        this.template.query(READ_BY_PREFIX,
+                rs -> {
+                    values.put(rs.getString("name"), codec.decode(rs.getBytes("value"), tClass));
+                },
+                issuer, toLikePattern(namePrefix));
+        return values;
+    }
+
+    /**
+     * Remove all values of the issuer whose name starts with the given prefix.
+     */
+    public void removeValues(String issuer, String namePrefix) {
+        this.template.update(REMOVE_BY_PREFIX, issuer, toLikePattern(namePrefix));
+    }
+
+    private static String toLikePattern(String prefix) {
+        return prefix
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_")
+                + "%";
+    }
+
     void clear() {
         this.template.execute("DELETE FROM nvpairs");
     }
@@ -12,9 +12,11 @@ import io.redlink.more.studymanager.model.Notification;
 import io.redlink.more.studymanager.utils.MapperUtils;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Component;
 
+import java.sql.Types;
 import java.util.List;
 import java.util.Map;
 
@@ -23,6 +25,10 @@ public class NotificationRepository {
 
     private static final String INSERT_NOTIFICATION = "INSERT INTO notifications (study_id, participant_id, msg_id, type, data) " +
             "VALUES (:study_id, :participant_id, :msg_id, :type::notifications_type, :data)";
+    private static final String INSERT_NOTIFICATIONS = "INSERT INTO notifications (study_id, participant_id, msg_id, type, data) " +
+            "SELECT study_id, participant_id, msg_id, type::notifications_type, data " +
+            "FROM unnest(:study_ids::BIGINT[], :participant_ids::INT[], :msg_ids::VARCHAR[], :types::VARCHAR[], :data::TEXT[]) " +
+            "AS n(study_id, participant_id, msg_id, type, data)";
     private static final String LIST_ALL = "SELECT * FROM notifications";
     private final JdbcTemplate template;
     private final NamedParameterJdbcTemplate namedTemplate;
@@ -33,13 +39,37 @@ public class NotificationRepository {
     }
 
     public void insert(Notification notification) {
-        this.namedTemplate.update(INSERT_NOTIFICATION, Map.of(
-                "study_id", notification.getStudyId(),
-                "participant_id", notification.getParticipantId(),
-                "msg_id", notification.getMsgId(),
-                "type", notification.getType().name().toLowerCase(),
-                "data", MapperUtils.writeValueAsString(notification.getData())
-        ));
+        this.namedTemplate.update(INSERT_NOTIFICATION, toParams(notification));
+    }
+
+    /**
+     * Store all notifications with a single multi-row insert.
+     */
+    public void batchInsert(List<Notification> notifications) {
+        if (notifications.isEmpty()) {
+            return;
+        }
+        final int size = notifications.size();
+        final Long[] studyIds = new Long[size];
+        final Integer[] participantIds = new Integer[size];
+        final String[] msgIds = new String[size];
+        final String[] types = new String[size];
+        final String[] data = new String[size];
+        for (int i = 0; i < size; i++) {
+            final Notification notification = notifications.get(i);
+            studyIds[i] = notification.getStudyId();
+            participantIds[i] = notification.getParticipantId();
+            msgIds[i] = notification.getMsgId();
+            types[i] = notification.getType().name().toLowerCase();
+            data[i] = MapperUtils.writeValueAsString(notification.getData());
+        }
+        this.namedTemplate.update(INSERT_NOTIFICATIONS, new MapSqlParameterSource()
+                .addValue("study_ids", studyIds, Types.ARRAY)
+                .addValue("participant_ids", participantIds, Types.ARRAY)
+                .addValue("msg_ids", msgIds, Types.ARRAY)
+                .addValue("types", types, Types.ARRAY)
+                .addValue("data", data, Types.ARRAY)
+        );
     }
 
     //just for testing
@@ -47,6 +77,16 @@ public class NotificationRepository {
         return this.template.query(LIST_ALL,getRowMapper());
     }
 
+    private static Map<String, Object> toParams(Notification notification) {
+        return Map.of(
+                "study_id", notification.getStudyId(),
+                "participant_id", notification.getParticipantId(),
+                "msg_id", notification.getMsgId(),
+                "type", notification.getType().name().toLowerCase(),
+                "data", MapperUtils.writeValueAsString(notification.getData())
+        );
+    }
+
     private static RowMapper<Notification> getRowMapper() {
         return (rs, rowNum) -> new Notification()
                 .setMsgId(rs.getString("msg_id"))
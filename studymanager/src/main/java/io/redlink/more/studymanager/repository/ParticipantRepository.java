@@ -10,8 +10,12 @@ package io.redlink.more.studymanager.repository;
 
 import io.redlink.more.studymanager.exception.BadRequestException;
 import io.redlink.more.studymanager.model.Participant;
+import java.sql.Types;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
@@ -33,6 +37,12 @@ public class ParticipantRepository {
             "WITH p AS (INSERT INTO participants(study_id,participant_id,alias,study_group_id) VALUES (:study_id,(SELECT COALESCE(MAX(participant_id),0)+1 FROM participants WHERE study_id = :study_id),:alias,:study_group_id) RETURNING participant_id, study_id) INSERT INTO registration_tokens(participant_id,study_id,token) SELECT participant_id, study_id, :token FROM p";
     private static final String GET_PARTICIPANT_BY_IDS = "SELECT p.participant_id, p.study_id, p.alias, p.study_group_id, r.token as token, p.status, p.created, p.modified, p.start FROM participants p LEFT JOIN registration_tokens r ON p.study_id = r.study_id AND p.participant_id = r.participant_id WHERE p.study_id = ? AND p.participant_id = ?";
     private static final String LIST_PARTICIPANTS_BY_STUDY = "SELECT p.participant_id, p.study_id, p.alias, p.study_group_id, r.token as token, p.status, p.created, p.modified, p.start FROM participants p LEFT JOIN registration_tokens r ON p.study_id = r.study_id AND p.participant_id = r.participant_id WHERE p.study_id = ?";
+    private static final String LIST_PARTICIPANT_IDS =
+            "SELECT participant_id FROM participants WHERE study_id = :study_id";
+    private static final String LIST_PARTICIPANT_GROUPS =
+            "SELECT participant_id, study_group_id FROM participants WHERE study_id = :study_id";
+    private static final String AND_STUDY_GROUP = " AND study_group_id = :study_group_id";
+    private static final String AND_STATUS = " AND status = ANY(:status::participant_status[])";
     private static final String DELETE_PARTICIPANT =
             "DELETE FROM participants " +
             "WHERE study_id=? AND participant_id=?";
@@ -93,6 +103,51 @@ public class ParticipantRepository {
         return template.query(LIST_PARTICIPANTS_BY_STUDY, getParticipantRowMapper(), studyId);
     }
 
+    /**
+     * List the ids of the participants of a study, optionally restricted to a study-group and/or a set of states.
+     *
+     * @param studyGroupId the study-group, {@code null} for all groups
+     * @param status the allowed states, {@code null} for all states
+     */
+    public List<Integer> listParticipantIds(long studyId, Integer studyGroupId, Set<Participant.Status> status) {
+        final MapSqlParameterSource params = toParams(studyId);
+        final StringBuilder query = new StringBuilder(LIST_PARTICIPANT_IDS);
+        if (studyGroupId != null) {
+            query.append(AND_STUDY_GROUP);
+            params.addValue("study_group_id", studyGroupId);
+        }
+        appendStatusFilter(query, params, status);
+        return namedTemplate.queryForList(query.toString(), params, Integer.class);
+    }
+
+    /**
+     * The study-group of each participant of a study, optionally restricted to a set of states.
+     *
+     * @param status the allowed states, {@code null} for all states
+     * @return the study-group by participant-id, {@code null} for participants not assigned to a group
+     */
+    public Map<Integer, Integer> listParticipantGroups(long studyId, Set<Participant.Status> status) {
+        final MapSqlParameterSource params = toParams(studyId);
+        final StringBuilder query = new StringBuilder(LIST_PARTICIPANT_GROUPS);
+        appendStatusFilter(query, params, status);
+        final Map<Integer, Integer> groups = new HashMap<>();
+        namedTemplate.query(query.toString(), params,
+                rs -> {
+                    groups.put(rs.getInt("participant_id"), rs.getObject("study_group_id", Integer.class));
+                });
+        return groups;
+    }
+
+    /**
+     * Restrict the query to the given states, {@code null} adds no restriction.
+     */
+    private static void appendStatusFilter(StringBuilder query, MapSqlParameterSource params, Set<Participant.Status> status) {
+        if (status != null) {
+            query.append(AND_STATUS);
+            params.addValue("status", status.stream().map(RepositoryUtils::toParam).toArray(String[]::new), Types.ARRAY);
+        }
+    }
+
     public List<Participant> listParticipantsForClosing() {
         return template.query(LIST_PARTICIPANTS_FOR_CLOSING, getParticipantRowMapper());
     }
@@ -9,7 +9,10 @@
 package io.redlink.more.studymanager.repository;
 
 import io.redlink.more.studymanager.model.PushNotificationsToken;
-import java.util.Optional;
+import java.sql.Types;
+import java.util.Collection;
+import java.util.Map;
+import java.util.stream.Collectors;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
@@ -18,8 +21,8 @@ import org.springframework.stereotype.Component;
 
 @Component
 public class PushNotificationTokenRepository {
-    private static final String GET_TOKEN_BY_ID = "SELECT service, token FROM push_notifications_token t WHERE t.study_id = :study_id AND t.participant_id = :participant_id";
-    private static final String CLEAR_TOKEN_BY_ID = "DELETE FROM push_notifications_token t WHERE t.study_id = :study_id AND t.participant_id = :participant_id";
+    private static final String GET_TOKENS_BY_IDS = "SELECT participant_id, service, token FROM push_notifications_token t WHERE t.study_id = :study_id AND t.participant_id = ANY(:participant_ids)";
+    private static final String CLEAR_TOKENS_BY_IDS = "DELETE FROM push_notifications_token t WHERE t.study_id = :study_id AND t.participant_id = ANY(:participant_ids)";
 
     private final NamedParameterJdbcTemplate namedTemplate;
 
@@ -28,22 +31,28 @@ public class PushNotificationTokenRepository {
     }
 
 
-    public Optional<PushNotificationsToken> getTokenById(long studyId, int participantId) {
-        try (var stream = namedTemplate.queryForStream(GET_TOKEN_BY_ID,
-                createParams(studyId, participantId),
-                getTokenRowMapper())) {
-            return stream.findFirst();
+    public Map<Integer, PushNotificationsToken> getTokensByIds(long studyId, Collection<Integer> participantIds) {
+        if (participantIds.isEmpty()) {
+            return Map.of();
+        }
+        try (var stream = namedTemplate.queryForStream(GET_TOKENS_BY_IDS,
+                createParams(studyId, participantIds),
+                (rs, rowNum) -> Map.entry(rs.getInt("participant_id"), getTokenRowMapper().mapRow(rs, rowNum)))) {
+            return stream.collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
         }
     }
 
-    public boolean deleteToken(long studyID, int participantId) {
-        return 1 == namedTemplate.update(CLEAR_TOKEN_BY_ID, createParams(studyID, participantId));
+    public int deleteTokens(long studyId, Collection<Integer> participantIds) {
+        if (participantIds.isEmpty()) {
+            return 0;
+        }
+        return namedTemplate.update(CLEAR_TOKENS_BY_IDS, createParams(studyId, participantIds));
     }
 
-    private static MapSqlParameterSource createParams(long studyId, int participantId) {
+    private static MapSqlParameterSource createParams(long studyId, Collection<Integer> participantIds) {
         return new MapSqlParameterSource()
                 .addValue("study_id", studyId)
-                .addValue("participant_id", participantId);
+                .addValue("participant_ids", participantIds.toArray(Integer[]::new), Types.ARRAY);
     }
 
     private static RowMapper<PushNotificationsToken> getTokenRowMapper() {
@@ -3,6 +3,12 @@
  */
 package io.redlink.more.studymanager.repository;
 
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
 import io.redlink.more.studymanager.exception.DataConstraintException;
 import io.redlink.more.studymanager.model.MoreUser;
 import io.redlink.more.studymanager.model.Study;
@@ -11,18 +17,22 @@ import io.redlink.more.studymanager.model.StudyUserRoles;
 import java.sql.Array;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.time.Duration;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import static io.redlink.more.studymanager.repository.RepositoryUtils.readInstant;
 
@@ -41,9 +51,6 @@ public class StudyAclRepository {
     private static final String SQL_RETAIN_ROLES =
             "DELETE FROM study_acl " +
             "WHERE study_id = :studyId AND user_id = :userId AND user_role NOT IN (:roles)";
-    private static final String COUNT_ROLES =
-            "SELECT count(*) FROM study_acl " +
-            "WHERE study_id = :studyId AND user_id = :userId AND user_role IN (:roles)";
     private static final String LIST_ROLES =
             "SELECT user_role FROM study_acl " +
             "WHERE study_id = :studyId AND user_id = :userId";
@@ -73,8 +80,19 @@ public class StudyAclRepository {
 
     private final NamedParameterJdbcTemplate jdbcTemplate;
 
-    public StudyAclRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+    /**
+     * Roles per (study, user), used for the permission checks on every secured API call.
+     * Entries are invalidated when the roles are changed on this node and expire to pick up changes made on other nodes.
+     */
+    private final Cache<AclKey, Set<StudyRole>> rolesCache = CacheBuilder.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterWrite(Duration.ofMinutes(1))
+            .recordStats()
+            .build();
+
+    public StudyAclRepository(NamedParameterJdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
         this.jdbcTemplate = jdbcTemplate;
+        GuavaCacheMetrics.monitor(meterRegistry, rolesCache, "study-acl");
     }
 
     public Map<MoreUser, Set<StudyRole>> getACL(Study study) {
@@ -117,10 +135,7 @@ public class StudyAclRepository {
     }
 
     public boolean hasAllRoles(long studyId, String userId, Set<StudyRole> roles) {
-        return Integer.valueOf(roles.size()).equals(jdbcTemplate.queryForObject(COUNT_ROLES,
-                createParams(studyId, userId, roles),
-                (rs, i) -> rs.getInt(1)
-        ));
+        return getCachedRoles(studyId, userId).containsAll(roles);
     }
 
     public boolean hasAnyRole(long studyId, String userId, StudyRole... roles) {
@@ -128,10 +143,33 @@ public class StudyAclRepository {
     }
 
     public boolean hasAnyRole(long studyId, String userId, Set<StudyRole> roles) {
-        return 0 < Optional.ofNullable(jdbcTemplate.queryForObject(COUNT_ROLES,
-                createParams(studyId, userId, roles),
-                (rs, i) -> rs.getInt(1)
-        )).orElse(0);
+        final Set<StudyRole> userRoles = getCachedRoles(studyId, userId);
+        return roles.stream().anyMatch(userRoles::contains);
+    }
+
+    private Set<StudyRole> getCachedRoles(long studyId, String userId) {
+        try {
+            return rolesCache.get(new AclKey(studyId, userId), () -> getRoles(studyId, userId));
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            Throwables.throwIfUnchecked(e.getCause());
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Drop the cached roles of the user, now and - to not re-cache uncommitted state - after the current transaction.
+     */
+    private void invalidateRoles(long studyId, String userId) {
+        final AclKey key = new AclKey(studyId, userId);
+        rolesCache.invalidate(key);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    rolesCache.invalidate(key);
+                }
+            });
+        }
     }
 
     /**
@@ -155,6 +193,7 @@ public class StudyAclRepository {
     public Set<StudyRole> setRoles(long studyId, String userId, Set<StudyRole> roles, String creatorId) {
         var paramMap = createParams(studyId, userId, roles)
                 .addValue("creator", creatorId);
+        invalidateRoles(studyId, userId);
 
         if (roles.isEmpty()) {
             clearRoles(studyId, userId);
@@ -184,6 +223,7 @@ public class StudyAclRepository {
      */
     @Transactional
     public void clearRoles(long studyId, String userId) {
+        invalidateRoles(studyId, userId);
         jdbcTemplate.update(CLEAR_ROLES, createParams(studyId, userId));
         if (!hasAdmin(studyId)) {
             throw DataConstraintException.createOneStudyAdminRequired(studyId, userId);
@@ -272,4 +312,6 @@ public class StudyAclRepository {
         }
     }
 
+    private record AclKey(long studyId, String userId) {
+    }
 }
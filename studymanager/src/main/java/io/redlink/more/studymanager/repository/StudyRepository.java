@@ -8,6 +8,12 @@
  */
 package io.redlink.more.studymanager.repository;
 
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
 import io.redlink.more.studymanager.model.Contact;
 import io.redlink.more.studymanager.model.Study;
 import io.redlink.more.studymanager.model.StudyRole;
@@ -15,6 +21,8 @@ import io.redlink.more.studymanager.model.User;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import io.redlink.more.studymanager.model.scheduler.Duration;
 import io.redlink.more.studymanager.utils.MapperUtils;
@@ -23,6 +31,8 @@ import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 @Component
 public class StudyRepository {
@@ -61,14 +71,26 @@ public class StudyRepository {
     private static final String SET_ACTIVE_STATE_BY_ID = "UPDATE studies SET status = 'active', start_date = now(), modified = now() WHERE study_id = ?";
     private static final String SET_PAUSED_STATE_BY_ID = "UPDATE studies SET status = 'paused', modified = now() WHERE study_id = ?";
     private static final String SET_CLOSED_STATE_BY_ID = "UPDATE studies SET status = 'closed', end_date = now(), modified = now() WHERE study_id = ?";
-    private static final String STUDY_HAS_STATE = "SELECT study_id FROM studies WHERE study_id = :study_id AND status::varchar IN (:study_status)";
+    private static final String GET_STATE_BY_ID = "SELECT status FROM studies WHERE study_id = ?";
 
     private final JdbcTemplate template;
     private final NamedParameterJdbcTemplate namedTemplate;
 
-    public StudyRepository(JdbcTemplate template) {
+    /**
+     * Status per study, consulted by the state-assertions preceding every modification of a study.
+     * {@link #setStateById(long, Study.Status)} writes through, so state changes are visible immediately on this node;
+     * entries expire to pick up changes made on other nodes.
+     */
+    private final Cache<Long, Optional<Study.Status>> stateCache = CacheBuilder.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterWrite(1, TimeUnit.MINUTES)
+            .recordStats()
+            .build();
+
+    public StudyRepository(JdbcTemplate template, MeterRegistry meterRegistry) {
         this.template = template;
         this.namedTemplate = new NamedParameterJdbcTemplate(template);
+        GuavaCacheMetrics.monitor(meterRegistry, stateCache, "study-state");
     }
 
     public Study insert(Study study) {
@@ -114,10 +136,23 @@ public class StudyRepository {
 
     public void deleteById(long id) {
         template.update(DELETE_BY_ID, id);
+        stateCache.invalidate(id);
     }
 
     public void setStateById(long id, Study.Status status) {
         template.update(getStatusQuery(status), id);
+        // a put replaces a concurrently loading (outdated) value, so the new state can not be overwritten
+        stateCache.put(id, Optional.of(status));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int txStatus) {
+                    if (txStatus != STATUS_COMMITTED) {
+                        stateCache.invalidate(id);
+                    }
+                }
+            });
+        }
     }
 
     private String getStatusQuery(Study.Status status) {
@@ -180,6 +215,7 @@ public class StudyRepository {
     // for testing purpose only
     protected void clear() {
         template.execute(CLEAR_STUDIES);
+        stateCache.invalidateAll();
     }
 
     public List<Study> listStudiesByStatus(Study.Status status) {
@@ -189,14 +225,20 @@ public class StudyRepository {
     public boolean hasState(long studyId, Set<Study.Status> allowedStates){
         if(allowedStates.isEmpty())
             return false;
-        try(
-                var stream = namedTemplate.queryForStream(STUDY_HAS_STATE,
-                        new MapSqlParameterSource()
-                                .addValue("study_id", studyId)
-                                .addValue("study_status", allowedStates.stream().map(Study.Status::getValue).toList()),
-                        (rs, rowNum) -> rs.getLong("study_id")
-                )) {
-            return stream.findFirst().isPresent();
+        return getStateById(studyId)
+                .map(allowedStates::contains)
+                .orElse(false);
+    }
+
+    public Optional<Study.Status> getStateById(long studyId) {
+        try {
+            return stateCache.get(studyId, () -> template.query(GET_STATE_BY_ID,
+                    (rs, rowNum) -> Study.Status.valueOf(rs.getString("status").toUpperCase()),
+                    studyId
+            ).stream().findFirst());
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            Throwables.throwIfUnchecked(e.getCause());
+            throw new IllegalStateException(e.getCause());
         }
     }
 
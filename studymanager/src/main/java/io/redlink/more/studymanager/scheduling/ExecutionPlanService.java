@@ -0,0 +1,151 @@
+/*
+ * Copyright LBI-DHP and/or licensed to LBI-DHP under one or more
+ * contributor license agreements (LBI-DHP: Ludwig Boltzmann Institute
+ * for Digital Health and Prevention -- A research institute of the
+ * Ludwig Boltzmann Gesellschaft, Österreichische Vereinigung zur
+ * Förderung der wissenschaftlichen Forschung).
+ * Licensed under the Elastic License 2.0.
+ */
+package io.redlink.more.studymanager.scheduling;
+
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import io.redlink.more.studymanager.core.component.Trigger;
+import io.redlink.more.studymanager.core.exception.ConfigurationValidationException;
+import io.redlink.more.studymanager.core.exception.SchedulingException;
+import io.redlink.more.studymanager.core.factory.ActionFactory;
+import io.redlink.more.studymanager.core.factory.TriggerFactory;
+import io.redlink.more.studymanager.core.properties.ActionProperties;
+import io.redlink.more.studymanager.model.Action;
+import io.redlink.more.studymanager.repository.InterventionRepository;
+import io.redlink.more.studymanager.sdk.MoreSDK;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compiles and caches what is needed to execute an intervention: the validated trigger-instance and the
+ * actions together with their factories and validated properties. A trigger-fire then only executes the
+ * trigger and creates the participant-scoped actions.
+ * <p>
+ * The trigger-instance of a plan is shared by all fires of the intervention, also concurrent ones,
+ * so triggers must not keep state in their instance.
+ * <p>
+ * Plans are invalidated when the trigger or the actions of an intervention are modified on this node,
+ * and expire to pick up modifications made on other nodes.
+ */
+@Service
+public class ExecutionPlanService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ExecutionPlanService.class);
+
+    private final InterventionRepository repository;
+
+    private final Map<String, TriggerFactory> triggerFactories;
+
+    private final Map<String, ActionFactory> actionFactories;
+
+    private final MoreSDK moreSDK;
+
+    private final Cache<PlanKey, Optional<ExecutionPlan>> plans = CacheBuilder.newBuilder()
+            .maximumSize(1_000)
+            .expireAfterWrite(5, TimeUnit.MINUTES)
+            .recordStats()
+            .build();
+
+    public ExecutionPlanService(InterventionRepository repository,
+                                Map<String, TriggerFactory> triggerFactories,
+                                Map<String, ActionFactory> actionFactories,
+                                MoreSDK moreSDK,
+                                MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.triggerFactories = triggerFactories;
+        this.actionFactories = actionFactories;
+        this.moreSDK = moreSDK;
+        GuavaCacheMetrics.monitor(meterRegistry, plans, "execution-plans");
+    }
+
+    /**
+     * Get the execution plan for the intervention, compiling it if necessary.
+     *
+     * @return the plan, or {@link Optional#empty()} if the intervention has no trigger
+     * @throws SchedulingException if the trigger can not be instantiated
+     */
+    public Optional<ExecutionPlan> getExecutionPlan(long studyId, Integer studyGroupId, int interventionId) {
+        final PlanKey key = new PlanKey(studyId, interventionId);
+        try {
+            final Optional<ExecutionPlan> plan = plans.get(key, () -> compile(studyId, studyGroupId, interventionId));
+            if (plan.isPresent() && !Objects.equals(plan.get().studyGroupId(), studyGroupId)) {
+                // the intervention moved to another group, the trigger must be re-scoped
+                final Optional<ExecutionPlan> recompiled = compile(studyId, studyGroupId, interventionId);
+                plans.put(key, recompiled);
+                return recompiled;
+            }
+            return plan;
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            Throwables.throwIfUnchecked(e.getCause());
+            throw new SchedulingException(e.getCause().getMessage());
+        }
+    }
+
+    public void invalidate(long studyId, int interventionId) {
+        plans.invalidate(new PlanKey(studyId, interventionId));
+    }
+
+    private Optional<ExecutionPlan> compile(long studyId, Integer studyGroupId, int interventionId) {
+        final io.redlink.more.studymanager.model.Trigger trigger = repository.getTriggerByIds(studyId, interventionId);
+        if (trigger == null) {
+            return Optional.empty();
+        }
+        final TriggerFactory factory = Optional.ofNullable(triggerFactories.get(trigger.getType()))
+                .orElseThrow(() -> new SchedulingException("Cannot find triggerType " + trigger.getType()));
+        final Trigger executable = factory.create(
+                moreSDK.scopedTriggerSDK(studyId, studyGroupId, interventionId),
+                trigger.getProperties()
+        );
+
+        final List<ActionPlan> actions = repository.listActions(studyId, interventionId).stream()
+                .map(action -> {
+                    final ActionFactory actionFactory = actionFactories.get(action.getType());
+                    if (actionFactory == null) {
+                        LOGGER.error("Skipping action_{} from intervention_{} in study_{}: No factory found for actionType {}",
+                                action.getActionId(), interventionId, studyId, action.getType());
+                        return null;
+                    }
+                    try {
+                        return new ActionPlan(action, actionFactory, (ActionProperties) actionFactory.validate(action.getProperties()));
+                    } catch (ConfigurationValidationException e) {
+                        LOGGER.error("Skipping action_{} from intervention_{} in study_{}: Invalid properties {}",
+                                action.getActionId(), interventionId, studyId, e.getReport());
+                        return null;
+                    }
+                })
+                .filter(Objects::nonNull)
+                .toList();
+
+        LOGGER.debug("Compiled execution plan for intervention_{} in study_{} with {} actions",
+                interventionId, studyId, actions.size());
+        return Optional.of(new ExecutionPlan(studyId, studyGroupId, interventionId, executable, actions));
+    }
+
+    public record ExecutionPlan(long studyId, Integer studyGroupId, int interventionId,
+                                Trigger trigger, List<ActionPlan> actions) {
+    }
+
+    public record ActionPlan(Action action, ActionFactory factory, ActionProperties properties) {
+    }
+
+    private record PlanKey(long studyId, int interventionId) {
+    }
+}
@@ -8,6 +8,12 @@
  */
 package io.redlink.more.studymanager.scheduling;
 
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
 import io.redlink.more.studymanager.core.exception.SchedulingException;
 import io.redlink.more.studymanager.core.sdk.schedule.CronSchedule;
 import io.redlink.more.studymanager.core.sdk.schedule.Schedule;
@@ -17,9 +23,14 @@ import org.springframework.scheduling.quartz.SchedulerFactoryBean;
 import org.springframework.stereotype.Service;
 
 import javax.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.Map;
 import java.util.TimeZone;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 import static org.quartz.JobBuilder.newJob;
 import static org.quartz.TriggerBuilder.newTrigger;
@@ -29,15 +40,32 @@ public class SchedulingService {
 
     public static final String TRIGGER = "trigger";
     public static final String JOB = "job";
+    private static final ThreadLocal<FireGroup> CURRENT_FIRE = new ThreadLocal<>();
+
     private final Scheduler scheduler;
 
-    public SchedulingService(SchedulerFactoryBean factory) throws SchedulerException {
+    /**
+     * Data shared by the fires of a study scheduled for the same second, e.g. several interventions
+     * running "every day at 12:00". Concurrent loads of the same snapshot wait for a single load.
+     */
+    private final Cache<SnapshotKey, Object> fireSnapshots = CacheBuilder.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterWrite(1, TimeUnit.MINUTES)
+            .recordStats()
+            .build();
+
+    public SchedulingService(SchedulerFactoryBean factory, MeterRegistry meterRegistry) throws SchedulerException {
         this.scheduler = factory.getScheduler();
         this.scheduler.start();
+        GuavaCacheMetrics.monitor(meterRegistry, fireSnapshots, "trigger-fire-snapshots");
     }
 
+    /**
+     * Schedule a job, idempotent: the id is derived from issuer and schedule, so scheduling the same again
+     * (e.g. when every node of a cluster activates the triggers on startup) keeps the existing job.
+     */
     public <T extends Job> String scheduleJob(String issuer, Map<String,Object> data, Schedule schedule, Class<T> type) {
-        String id = UUID.randomUUID().toString();
+        String id = getScheduleId(issuer, schedule);
 
         final JobDetail job = newJob().ofType(type)
                 .withIdentity(new JobKey(getInnerId(JOB, issuer, id), type.getSimpleName()))
@@ -50,7 +78,12 @@ public class SchedulingService {
                 .build();
 
         try {
+            if (this.scheduler.checkExists(trigger.getKey())) {
+                return id;
+            }
             this.scheduler.scheduleJob(job, trigger);
+        } catch (ObjectAlreadyExistsException e) {
+            // concurrently scheduled by another node
         } catch (SchedulerException e) {
             throw new SchedulingException(e);
         }
@@ -67,6 +100,41 @@ public class SchedulingService {
         }
     }
 
+    /**
+     * Mark the current thread as executing a fire of the given study, until the returned context is closed.
+     */
+    public FireContext enterFire(long studyId, Instant scheduledFireTime) {
+        CURRENT_FIRE.set(new FireGroup(studyId, scheduledFireTime.getEpochSecond()));
+        return CURRENT_FIRE::remove;
+    }
+
+    /**
+     * Whether the current thread executes a fire of the given study.
+     */
+    public boolean isInFire(long studyId) {
+        final FireGroup fire = CURRENT_FIRE.get();
+        return fire != null && fire.studyId() == studyId;
+    }
+
+    /**
+     * Load data of a study, shared with the other fires of the study scheduled for the same second.
+     * Outside of a fire of that study, the data is loaded directly.
+     *
+     * @param key identifies the data within the fire-group, must implement {@code equals} and {@code hashCode}
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T coalesce(long studyId, Object key, Supplier<T> loader) {
+        if (!isInFire(studyId)) {
+            return loader.get();
+        }
+        try {
+            return (T) fireSnapshots.get(new SnapshotKey(CURRENT_FIRE.get(), key), loader::get);
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            Throwables.throwIfUnchecked(e.getCause());
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
     @PreDestroy
     public void preDestroy() throws SchedulerException {
         if(this.scheduler != null) {
@@ -83,9 +151,26 @@ public class SchedulingService {
         }
     }
 
+    private static String getScheduleId(String issuer, Schedule schedule) {
+        final String definition;
+        if(schedule instanceof CronSchedule) {
+            definition = "cron:" + ((CronSchedule) schedule).getCronExpression();
+        } else {
+            throw new NotImplementedException("SchedulerType " + schedule.getClass().getSimpleName() + " not yet supportet");
+        }
+        return UUID.nameUUIDFromBytes((issuer + "|" + definition).getBytes(StandardCharsets.UTF_8)).toString();
+    }
+
     private String getInnerId(String prefix, String issuer, String id) {
         return prefix + "-" + issuer + "-" + id;
     }
 
+    public interface FireContext extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private record FireGroup(long studyId, long epochSecond) {}
 
+    private record SnapshotKey(FireGroup fire, Object key) {}
 }
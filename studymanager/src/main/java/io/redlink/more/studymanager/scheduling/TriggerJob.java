@@ -10,16 +10,10 @@ package io.redlink.more.studymanager.scheduling;
 
 import io.redlink.more.studymanager.action.ActionService;
 import io.redlink.more.studymanager.core.exception.SchedulingException;
-import io.redlink.more.studymanager.core.factory.TriggerFactory;
 import io.redlink.more.studymanager.core.io.Parameters;
 import io.redlink.more.studymanager.core.io.TriggerResult;
-import io.redlink.more.studymanager.core.sdk.MoreTriggerSDK;
-import io.redlink.more.studymanager.model.Trigger;
-import io.redlink.more.studymanager.sdk.MoreSDK;
-import io.redlink.more.studymanager.service.InterventionService;
 import io.redlink.more.studymanager.utils.LoggingUtils;
 import java.util.Map;
-import java.util.Optional;
 import org.quartz.Job;
 import org.quartz.JobExecutionContext;
 import org.quartz.JobExecutionException;
@@ -33,16 +27,13 @@ public class TriggerJob implements Job {
     private static final Logger LOGGER = LoggerFactory.getLogger(TriggerJob.class);
 
     @Autowired
-    private MoreSDK moreSDK;
+    private ExecutionPlanService executionPlanService;
 
     @Autowired
-    private Map<String, TriggerFactory> triggerFactories;
-
-    @Autowired
-    private InterventionService interventionService;
+    private ActionService actionService;
 
     @Autowired
-    private ActionService actionService;
+    private SchedulingService schedulingService;
 
     @Override
     public void execute(JobExecutionContext context) throws JobExecutionException {
@@ -56,23 +47,21 @@ public class TriggerJob implements Job {
             ctx.putIntervention(interventionId);
             LOGGER.debug("Execute Trigger-Job: {}", context.getTrigger());
 
-            Trigger trigger = Optional.ofNullable(
-                    interventionService.getTriggerByIds(studyId, interventionId)
-            ).orElseThrow(() ->
-                    new SchedulingException(String.format("Cannot find trigger: sid:%s, iid:%s", studyId, interventionId))
-            );
-
-            TriggerFactory factory = Optional.ofNullable(
-                    triggerFactories.get(trigger.getType())
-            ).orElseThrow(() -> new SchedulingException("Cannot find triggerType " + trigger.getType()));
+            ExecutionPlanService.ExecutionPlan plan = executionPlanService
+                    .getExecutionPlan(studyId, studyGroupId, interventionId)
+                    .orElseThrow(() ->
+                            new SchedulingException(String.format("Cannot find trigger: sid:%s, iid:%s", studyId, interventionId))
+                    );
 
-            MoreTriggerSDK sdk = moreSDK.scopedTriggerSDK(studyId, studyGroupId, interventionId);
             Parameters parameters = new Parameters(Map.of("triggerTime", context.getFireTime()));
 
-            TriggerResult result = factory.create(sdk, trigger.getProperties()).execute(parameters);
+            TriggerResult result;
+            try (var fire = schedulingService.enterFire(studyId, context.getScheduledFireTime().toInstant())) {
+                result = plan.trigger().execute(parameters);
+            }
 
             if(result.proceed()) {
-                actionService.execute(studyId, studyGroupId, interventionId, result.getActionParameters());
+                actionService.execute(plan, result.getActionParameters());
             } else {
                 LOGGER.debug("Skipping Action execution, trigger did not fire");
             }
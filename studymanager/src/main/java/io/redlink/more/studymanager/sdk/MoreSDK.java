@@ -8,6 +8,7 @@
  */
 package io.redlink.more.studymanager.sdk;
 
+import io.redlink.more.studymanager.core.io.DataQuery;
 import io.redlink.more.studymanager.core.io.TimeRange;
 import io.redlink.more.studymanager.core.properties.ObservationProperties;
 import io.redlink.more.studymanager.core.sdk.MoreActionSDK;
@@ -15,6 +16,7 @@ import io.redlink.more.studymanager.core.sdk.MoreObservationSDK;
 import io.redlink.more.studymanager.core.sdk.MoreTriggerSDK;
 import io.redlink.more.studymanager.core.sdk.schedule.Schedule;
 import io.redlink.more.studymanager.model.Participant;
+import io.redlink.more.studymanager.model.PushNotification;
 import io.redlink.more.studymanager.model.data.ElasticActionDataPoint;
 import io.redlink.more.studymanager.model.data.ElasticDataPoint;
 import io.redlink.more.studymanager.model.data.ElasticObservationDataPoint;
@@ -80,8 +82,24 @@ public class MoreSDK {
         nvpairs.removeValue(issuer, name);
     }
 
-    public MoreActionSDK scopedActionSDK(Long studyId, Integer studyGroupId, int interventionId, int actionId, String actionType, int participantId) {
-        return new MoreActionSDKImpl(this, studyId, studyGroupId, interventionId, actionId, actionType, participantId);
+    public <T extends Serializable> void setValues(String issuer, Map<String, T> values) {
+        nvpairs.setValues(issuer, values);
+    }
+
+    public <T extends Serializable> Map<String, T> getValues(String issuer, String namePrefix, Class<T> tClass) {
+        return nvpairs.getValues(issuer, namePrefix, tClass);
+    }
+
+    public void removeValues(String issuer, String namePrefix) {
+        nvpairs.removeValues(issuer, namePrefix);
+    }
+
+    /**
+     * @param notifications collects the push-notifications of the action, they are sent by {@link PushNotificationBatch#send(MoreSDK, long)}
+     */
+    public MoreActionSDK scopedActionSDK(Long studyId, Integer studyGroupId, int interventionId, int actionId, String actionType, int participantId,
+                                         PushNotificationBatch notifications) {
+        return new MoreActionSDKImpl(this, studyId, studyGroupId, interventionId, actionId, actionType, participantId, notifications);
     }
 
     public MoreObservationSDK scopedObservationSDK(Long studyId, Integer studyGroupId, int observationId) {
@@ -110,24 +128,47 @@ public class MoreSDK {
         schedulingService.unscheduleJob(issuer, id, TriggerJob.class);
     }
 
+    /**
+     * Within a trigger-fire, the participants are resolved from a snapshot of the study,
+     * shared by all fires of the study in the same second.
+     */
     public Set<Integer> listParticipants(long studyId, Integer studyGroupId, Set<Participant.Status> status) {
-        return participantService.listParticipants(studyId).stream()
-                .filter(p -> studyGroupId == null || studyGroupId.equals(p.getStudyGroupId()))
-                .filter(p -> status == null || status.contains(p.getStatus()))
-                .map(Participant::getParticipantId)
-                .collect(Collectors.toSet());
+        if (!schedulingService.isInFire(studyId)) {
+            return new HashSet<>(participantService.listParticipantIds(studyId, studyGroupId, status));
+        }
+        Map<Integer, Integer> snapshot = schedulingService.coalesce(studyId, new ParticipantSnapshot(status),
+                () -> participantService.listParticipantGroups(studyId, status));
+        return snapshot.entrySet().stream()
+                .filter(e -> studyGroupId == null || studyGroupId.equals(e.getValue()))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toCollection(HashSet::new));
     }
 
     public Set<Integer> listActiveParticipantsByQuery(long studyId, Integer studyGroupId, String query, TimeRange timerange) {
         Set<Integer> participants = listParticipants(studyId, studyGroupId, Set.of(Participant.Status.ACTIVE));
-        Set<Integer> allThatMatchQuery = new HashSet<>(elasticService.participantsThatMapQuery(studyId, studyGroupId, query, timerange));
-        participants.retainAll(allThatMatchQuery);
+        BitSet allThatMatchQuery = schedulingService.coalesce(studyId, QuerySnapshot.of(studyGroupId, query, timerange),
+                () -> elasticService.participantsThatMapQuery(studyId, studyGroupId, query, timerange));
+        participants.removeIf(participantId -> !allThatMatchQuery.get(participantId));
         return participants;
     }
 
-    public boolean sendPushNotification(long studyId, int participantId, String title, String message, Map<String, String> data) {
-        LOGGER.debug("Sending message to participant (sid:{}, pid:{}): {} -- {}", studyId, participantId, title, message);
-        return pushNotificationService.sendPushNotification(studyId, participantId, title, message, data);
+    public Set<Integer> listActiveParticipantsByQuery(long studyId, Integer studyGroupId, DataQuery query, TimeRange timerange) {
+        Set<Integer> participants = listParticipants(studyId, studyGroupId, Set.of(Participant.Status.ACTIVE));
+        BitSet allThatMatchQuery = schedulingService.coalesce(studyId, QuerySnapshot.of(studyGroupId, query, timerange),
+                () -> elasticService.participantsThatMapQuery(studyId, studyGroupId, query, timerange));
+        participants.removeIf(participantId -> !allThatMatchQuery.get(participantId));
+        return participants;
+    }
+
+    public Map<Integer, Instant> getLatestMatchingDataByParticipant(long studyId, Integer studyGroupId, DataQuery query, TimeRange timerange, Instant storedAfter) {
+        return elasticService.latestMatchPerParticipant(studyId, studyGroupId, query, timerange, storedAfter);
+    }
+
+    public Set<Integer> sendPushNotifications(long studyId, Set<Integer> participantIds, String title, String message, Map<String, String> data) {
+        LOGGER.debug("Sending message to participants (sid:{}, pids:{}): {} -- {}", studyId, participantIds, title, message);
+        return pushNotificationService.sendPushNotifications(studyId, participantIds.stream()
+                .map(participantId -> new PushNotification(participantId, title, message, data))
+                .toList());
     }
 
     public void storeDatapoint(
@@ -179,4 +220,15 @@ public class MoreSDK {
     public void removePropertiesForParticipant(long studyId, Integer participantId, int observationId) {
         observationRepository.removeParticipantProperties(studyId, participantId, observationId);
     }
+
+    /** The participants of a study in the given states, with their study-group. */
+    private record ParticipantSnapshot(Set<Participant.Status> status) {}
+
+    private record QuerySnapshot(Integer studyGroupId, Object query, String from, String to) {
+        static QuerySnapshot of(Integer studyGroupId, Object query, TimeRange timerange) {
+            return timerange == null
+                    ? new QuerySnapshot(studyGroupId, query, null, null)
+                    : new QuerySnapshot(studyGroupId, query, timerange.getFromString(), timerange.getToString());
+        }
+    }
 }
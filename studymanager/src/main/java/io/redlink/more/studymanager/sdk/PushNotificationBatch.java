@@ -0,0 +1,65 @@
+/*
+ * Copyright LBI-DHP and/or licensed to LBI-DHP under one or more
+ * contributor license agreements (LBI-DHP: Ludwig Boltzmann Institute
+ * for Digital Health and Prevention -- A research institute of the
+ * Ludwig Boltzmann Gesellschaft, Österreichische Vereinigung zur
+ * Förderung der wissenschaftlichen Forschung).
+ * Licensed under the Elastic License 2.0.
+ */
+package io.redlink.more.studymanager.sdk;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Collectors;
+
+/**
+ * Collects the push-notifications of the actions executed for one trigger-fire, so they are sent with one
+ * token-lookup and one batch-request per distinct message, instead of one per participant.
+ * Thread-safe, actions of the same fire are executed concurrently.
+ */
+public class PushNotificationBatch {
+
+    private final Map<Message, Queue<Recipient>> recipients = new ConcurrentHashMap<>();
+
+    /**
+     * Queue a notification for the participant.
+     *
+     * @param onSent called after the notification was sent to the participant
+     */
+    public void add(int participantId, String title, String message, Map<String, String> data, Runnable onSent) {
+        recipients.computeIfAbsent(new Message(title, message, data), m -> new ConcurrentLinkedQueue<>())
+                .add(new Recipient(participantId, onSent));
+    }
+
+    /**
+     * Send all queued notifications.
+     *
+     * @return the number of notifications sent
+     */
+    public int send(MoreSDK sdk, long studyId) {
+        int sent = 0;
+        for (Map.Entry<Message, Queue<Recipient>> entry : recipients.entrySet()) {
+            final Message message = entry.getKey();
+            final Set<Integer> notified = sdk.sendPushNotifications(studyId,
+                    entry.getValue().stream().map(Recipient::participantId).collect(Collectors.toSet()),
+                    message.title(), message.message(), message.data());
+            for (Recipient recipient : entry.getValue()) {
+                if (notified.contains(recipient.participantId())) {
+                    recipient.onSent().run();
+                    sent++;
+                }
+            }
+        }
+        recipients.clear();
+        return sent;
+    }
+
+    private record Message(String title, String message, Map<String, String> data) {
+    }
+
+    private record Recipient(int participantId, Runnable onSent) {
+    }
+}
@@ -11,6 +11,7 @@ package io.redlink.more.studymanager.sdk.scoped;
 import io.redlink.more.studymanager.core.sdk.MoreActionSDK;
 import io.redlink.more.studymanager.model.data.ElasticDataPoint;
 import io.redlink.more.studymanager.sdk.MoreSDK;
+import io.redlink.more.studymanager.sdk.PushNotificationBatch;
 import io.redlink.more.studymanager.utils.LoggingUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -26,12 +27,16 @@ public class MoreActionSDKImpl extends MorePlatformSDKImpl implements MoreAction
 
     protected final int participantId;
 
-    public MoreActionSDKImpl(MoreSDK sdk, long studyId, Integer studyGroupId, int interventionId, int actionId, String actionType, int participantId) {
+    private final PushNotificationBatch notifications;
+
+    public MoreActionSDKImpl(MoreSDK sdk, long studyId, Integer studyGroupId, int interventionId, int actionId, String actionType, int participantId,
+                             PushNotificationBatch notifications) {
         super(sdk, studyId, studyGroupId);
         this.interventionId = interventionId;
         this.actionId = actionId;
         this.actionType = actionType;
         this.participantId = participantId;
+        this.notifications = notifications;
     }
 
     @Override
@@ -43,9 +48,7 @@ public class MoreActionSDKImpl extends MorePlatformSDKImpl implements MoreAction
             ctx.putIntervention(interventionId);
             ctx.putAction(actionId, actionType);
 
-            if (sdk.sendPushNotification(studyId, participantId, title, message, null)) {
-                sdk.storeDatapoint(ElasticDataPoint.Type.action, studyId, studyGroupId, participantId, actionId, actionType, Instant.now(), Map.of("title", title, "message", message));
-            }
+            notifications.add(participantId, title, message, null, () -> storeActionDatapoint(title, message));
         }
     }
 
@@ -63,12 +66,14 @@ public class MoreActionSDKImpl extends MorePlatformSDKImpl implements MoreAction
 
             LOGGER.info("Trigger observation for participant {} with deepLink <{}>", participantId, deepLink);
 
-            if (sdk.sendPushNotification(studyId, participantId, title, message, Map.of("deepLink", deepLink))) {
-                sdk.storeDatapoint(ElasticDataPoint.Type.action, studyId, studyGroupId, participantId, actionId, actionType, Instant.now(), Map.of("title", title, "message", message));
-            }
+            notifications.add(participantId, title, message, Map.of("deepLink", deepLink), () -> storeActionDatapoint(title, message));
         }
     }
 
+    private void storeActionDatapoint(String title, String message) {
+        sdk.storeDatapoint(ElasticDataPoint.Type.action, studyId, studyGroupId, participantId, actionId, actionType, Instant.now(), Map.of("title", title, "message", message));
+    }
+
     @Override
     public String getIssuer() {
         return studyId + "-" + studyGroupId + '-' + interventionId + "-" + actionId + "-action";
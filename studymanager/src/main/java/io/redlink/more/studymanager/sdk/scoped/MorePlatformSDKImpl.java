@@ -13,6 +13,7 @@ import io.redlink.more.studymanager.model.Participant;
 import io.redlink.more.studymanager.sdk.MoreSDK;
 
 import java.io.Serializable;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
@@ -60,5 +61,20 @@ public abstract class MorePlatformSDKImpl implements MorePlatformSDK {
         sdk.removeValue(getIssuer(), name);
     }
 
+    @Override
+    public <T extends Serializable> void setValues(Map<String, T> values) {
+        sdk.setValues(getIssuer(), values);
+    }
+
+    @Override
+    public <T extends Serializable> Map<String, T> getValues(String namePrefix, Class<T> tClass) {
+        return sdk.getValues(getIssuer(), namePrefix, tClass);
+    }
+
+    @Override
+    public void removeValues(String namePrefix) {
+        sdk.removeValues(getIssuer(), namePrefix);
+    }
+
     public abstract String getIssuer();
 }
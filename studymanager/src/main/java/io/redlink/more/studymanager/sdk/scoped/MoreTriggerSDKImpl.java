@@ -8,12 +8,15 @@
  */
 package io.redlink.more.studymanager.sdk.scoped;
 
+import io.redlink.more.studymanager.core.io.DataQuery;
 import io.redlink.more.studymanager.core.io.TimeRange;
 import io.redlink.more.studymanager.core.sdk.MoreTriggerSDK;
 import io.redlink.more.studymanager.core.sdk.schedule.Schedule;
 import io.redlink.more.studymanager.sdk.MoreSDK;
 import org.apache.commons.lang3.NotImplementedException;
 
+import java.time.Instant;
+import java.util.Map;
 import java.util.Set;
 
 public class MoreTriggerSDKImpl extends MorePlatformSDKImpl implements MoreTriggerSDK {
@@ -39,6 +42,16 @@ public class MoreTriggerSDKImpl extends MorePlatformSDKImpl implements MoreTrigg
         return sdk.listActiveParticipantsByQuery(studyId, studyGroupId, query, timerange);
     }
 
+    @Override
+    public Set<Integer> participantIdsMatchingQuery(DataQuery query, TimeRange timerange) {
+        return sdk.listActiveParticipantsByQuery(studyId, studyGroupId, query, timerange);
+    }
+
+    @Override
+    public Map<Integer, Instant> latestMatchingDataPerParticipant(DataQuery query, TimeRange timerange, Instant storedAfter) {
+        return sdk.getLatestMatchingDataByParticipant(studyId, studyGroupId, query, timerange, storedAfter);
+    }
+
     @Override
     public String addWebhook() {
         throw new NotImplementedException();
@@ -0,0 +1,163 @@
+/*
+ * Copyright LBI-DHP and/or licensed to LBI-DHP under one or more
+ * contributor license agreements (LBI-DHP: Ludwig Boltzmann Institute
+ * for Digital Health and Prevention -- A research institute of the
+ * Ludwig Boltzmann Gesellschaft, Österreichische Vereinigung zur
+ * Förderung der wissenschaftlichen Forschung).
+ * Licensed under the Elastic License 2.0.
+ */
+package io.redlink.more.studymanager.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.redlink.more.studymanager.model.ExportFormat;
+import io.redlink.more.studymanager.utils.MapperUtils;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes exported datapoints to an {@link OutputStream} as they arrive, without buffering the export.
+ * Closing the writer completes the document (e.g. the closing bracket of the JSON array) and closes the stream.
+ */
+public abstract class DataExportWriter implements Closeable, Flushable {
+
+    private static final String DATA_FIELD_PREFIX = "data_";
+
+    public static DataExportWriter create(ExportFormat format, OutputStream outputStream, boolean gzip) throws IOException {
+        final OutputStream out = gzip ? new GZIPOutputStream(outputStream, 64 * 1024) : outputStream;
+        return switch (format) {
+            case JSON -> new JsonArrayWriter(out);
+            case NDJSON -> new NdJsonWriter(out);
+            case CSV -> new CsvWriter(out);
+        };
+    }
+
+    public abstract void write(JsonNode datapoint) throws IOException;
+
+    private static class JsonArrayWriter extends DataExportWriter {
+        private final JsonGenerator generator;
+
+        JsonArrayWriter(OutputStream out) throws IOException {
+            this.generator = MapperUtils.MAPPER.createGenerator(out);
+            this.generator.writeStartArray();
+        }
+
+        @Override
+        public void write(JsonNode datapoint) throws IOException {
+            MapperUtils.MAPPER.writeTree(generator, datapoint);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            generator.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try (generator) {
+                generator.writeEndArray();
+            }
+        }
+    }
+
+    private static class NdJsonWriter extends DataExportWriter {
+        private final JsonGenerator generator;
+
+        NdJsonWriter(OutputStream out) throws IOException {
+            this.generator = MapperUtils.MAPPER.createGenerator(out);
+        }
+
+        @Override
+        public void write(JsonNode datapoint) throws IOException {
+            MapperUtils.MAPPER.writeTree(generator, datapoint);
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            generator.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.close();
+        }
+    }
+
+    /**
+     * Writes one line per datapoint with the common fields as columns;
+     * the observation-specific {@code data_*} fields are collected in a JSON-object in the last column.
+     */
+    private static class CsvWriter extends DataExportWriter {
+        private static final List<String> COLUMNS = List.of(
+                "datapoint_id", "participant_id", "study_id", "study_group_id",
+                "observation_id", "observation_type", "action_id", "action_type",
+                "data_type", "storage_date", "effective_time_frame"
+        );
+        private static final char SEPARATOR = ';';
+
+        private final Writer writer;
+
+        CsvWriter(OutputStream out) throws IOException {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            for (String column : COLUMNS) {
+                writer.write(column);
+                writer.write(SEPARATOR);
+            }
+            writer.write("data\n");
+        }
+
+        @Override
+        public void write(JsonNode datapoint) throws IOException {
+            for (String column : COLUMNS) {
+                final JsonNode value = datapoint.get(column);
+                if (value != null && !value.isNull()) {
+                    writeValue(value.isValueNode() ? value.asText() : value.toString());
+                }
+                writer.write(SEPARATOR);
+            }
+            final ObjectNode data = MapperUtils.MAPPER.createObjectNode();
+            final Iterator<Map.Entry<String, JsonNode>> fields = datapoint.fields();
+            while (fields.hasNext()) {
+                final Map.Entry<String, JsonNode> field = fields.next();
+                if (field.getKey().startsWith(DATA_FIELD_PREFIX) && !COLUMNS.contains(field.getKey())) {
+                    data.set(field.getKey().substring(DATA_FIELD_PREFIX.length()), field.getValue());
+                }
+            }
+            writeValue(data.toString());
+            writer.write('\n');
+        }
+
+        private void writeValue(String value) throws IOException {
+            if (value.indexOf(SEPARATOR) < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                writer.write(value);
+            } else {
+                writer.write('"');
+                writer.write(value.replace("\"", "\"\""));
+                writer.write('"');
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.close();
+        }
+    }
+}
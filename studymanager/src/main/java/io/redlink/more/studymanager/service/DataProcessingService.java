@@ -13,6 +13,7 @@ import io.redlink.more.studymanager.model.Observation;
 import io.redlink.more.studymanager.model.Participant;
 import io.redlink.more.studymanager.model.ParticipationData;
 import io.redlink.more.studymanager.model.StudyGroup;
+import io.redlink.more.studymanager.model.data.SimpleDataPointPage;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
@@ -37,20 +38,21 @@ public class DataProcessingService {
     }
 
     public List<ParticipationData> getParticipationData(Long studyId){
-        List<Observation> observationList = observationService.listObservations(studyId);
-        List<Participant> participantList = participantService.listParticipants(studyId);
-        List<StudyGroup> studyGroupList = studyGroupService.listStudyGroups(studyId);
-
-        Map<Observation, List<Participant>> participantsByObservation = new HashMap<>();
-        for(Observation observation : observationList) {
-            if(observation.getStudyGroupId() == null){
-                participantsByObservation.put(observation, participantList);
-            }else{
-                participantsByObservation.put(observation, participantList
-                        .stream().filter(p -> (observation.getStudyGroupId().equals(p.getStudyGroupId())))
-                        .toList());
-            }
-        }
+        return mergeParticipationData(
+                observationService.listObservations(studyId),
+                participantService.listParticipants(studyId),
+                studyGroupService.listStudyGroups(studyId),
+                elasticService.getParticipationData(studyId)
+        );
+    }
+
+    /**
+     * Combine the participation-data found in elastic with the observations and participants of the study:
+     * every (observation, participant) pair without data is added as not-received.
+     * Runs in linear time by looking up existing data through a {@link ParticipationKey}-index.
+     */
+    static List<ParticipationData> mergeParticipationData(List<Observation> observationList, List<Participant> participantList,
+                                                          List<StudyGroup> studyGroupList, List<ParticipationData> elasticData) {
         Map<Integer, Observation> observationById = new HashMap<>();
         Map<Integer, Participant> participantById = new HashMap<>();
         Map<Integer, StudyGroup> studyGroupById = new HashMap<>();
@@ -64,9 +66,10 @@ public class DataProcessingService {
             studyGroupById.put(studyGroup.getStudyGroupId(), studyGroup);
         }
 
-        List<ParticipationData> incompleteParticipationDataList = elasticService.getParticipationData(studyId)
+        List<ParticipationData> incompleteParticipationDataList = elasticData
                 .stream().filter(p -> observationById.get(p.observationNamedId().id()) != null).toList();
         List<ParticipationData> participationDataList = new ArrayList<>();
+        Set<ParticipationKey> existing = new HashSet<>();
 
         ParticipationData.NamedId studyGroup;
         for(ParticipationData participationData : incompleteParticipationDataList){
@@ -83,17 +86,18 @@ public class DataProcessingService {
                     participationData.dataReceived(),
                     participationData.lastDataReceived()
             ));
+            existing.add(new ParticipationKey(
+                    participationData.observationNamedId().id(),
+                    participationData.participantNamedId().id(),
+                    studyGroup != null ? studyGroup.id() : null));
         }
 
-        for(Observation observation : participantsByObservation.keySet()){
-            for(Participant participant : participantsByObservation.get(observation)){
-                if(participationDataList.stream()
-                        .filter(p -> (
-                                p.observationNamedId().id() == (observation.getObservationId()) &&
-                                        (p.studyGroupNamedId() != null
-                                                ? (participant.getStudyGroupId() != null && p.studyGroupNamedId().id() == participant.getStudyGroupId())
-                                                : participant.getStudyGroupId() == null) &&
-                                        p.participantNamedId().id() == (participant.getParticipantId()))).toList().isEmpty()) {
+        for(Observation observation : observationList){
+            for(Participant participant : participantList){
+                if(observation.getStudyGroupId() != null && !observation.getStudyGroupId().equals(participant.getStudyGroupId())) {
+                    continue;
+                }
+                if(!existing.contains(new ParticipationKey(observation.getObservationId(), participant.getParticipantId(), participant.getStudyGroupId()))) {
                     studyGroup = null;
                     if(participant.getStudyGroupId() != null)
                         studyGroup = new ParticipationData.NamedId(participant.getStudyGroupId(), studyGroupById.get(participant.getStudyGroupId()).getTitle());
@@ -112,18 +116,24 @@ public class DataProcessingService {
         return participationDataList;
     }
 
-    public List<DataPointDTO> getDataPoints(Long studyId, Integer size, Integer observationId, Integer participantId, OffsetDateTime date) {
+    public DataPointPage getDataPoints(Long studyId, Integer size, Integer observationId, Integer participantId, OffsetDateTime date,
+                                       String cursor, List<String> fields) {
         try {
-            return elasticService.listDataPoints(studyId, participantId, observationId, toIsoString(date), size).stream()
-                    .map(dp -> new DataPointDTO()
-                            .observation(getObservationName(studyId, dp.getObservationId()))
-                            .observationId(dp.getObservationId())
-                            .participant(getParticipantName(studyId, dp.getParticipantId()))
-                            .participantId(dp.getParticipantId())
-                            .time(dp.getTime())
-                            .data(dp.getData())
-                    )
-                    .toList();
+            final SimpleDataPointPage page = elasticService.listDataPoints(
+                    studyId, participantId, observationId, toIsoString(date), size, cursor, fields);
+            return new DataPointPage(
+                    page.dataPoints().stream()
+                            .map(dp -> new DataPointDTO()
+                                    .observation(getObservationName(studyId, dp.getObservationId()))
+                                    .observationId(dp.getObservationId())
+                                    .participant(getParticipantName(studyId, dp.getParticipantId()))
+                                    .participantId(dp.getParticipantId())
+                                    .time(dp.getTime())
+                                    .data(dp.getData())
+                            )
+                            .toList(),
+                    page.nextCursor()
+            );
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
@@ -146,4 +156,10 @@ public class DataProcessingService {
                 .map(Observation::getTitle)
                 .orElse("<unknown>");
     }
+
+    private record ParticipationKey(int observationId, int participantId, Integer studyGroupId) {
+    }
+
+    public record DataPointPage(List<DataPointDTO> dataPoints, String nextCursor) {
+    }
 }
@@ -0,0 +1,70 @@
+/*
+ * Copyright LBI-DHP and/or licensed to LBI-DHP under one or more
+ * contributor license agreements (LBI-DHP: Ludwig Boltzmann Institute
+ * for Digital Health and Prevention -- A research institute of the
+ * Ludwig Boltzmann Gesellschaft, Österreichische Vereinigung zur
+ * Förderung der wissenschaftlichen Forschung).
+ * Licensed under the Elastic License 2.0.
+ */
+package io.redlink.more.studymanager.service;
+
+import io.redlink.more.studymanager.model.Study;
+import io.redlink.more.studymanager.properties.ElasticProperties;
+import io.redlink.more.studymanager.repository.StudyRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+
+/**
+ * Moves the datapoints of existing per-study indices into the shared index
+ * (see {@link ElasticProperties.StorageProperties}), one study after the other.
+ * Studies that fail are logged and remain in their own index; the migration can be repeated.
+ * Datapoints written to a study while it is migrated are rejected, so ingestion should be paused meanwhile.
+ */
+@Service
+@EnableConfigurationProperties({ElasticProperties.class})
+public class ElasticIndexMigration {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ElasticIndexMigration.class);
+
+    private final StudyRepository studyRepository;
+    private final ElasticService elasticService;
+    private final ElasticProperties.StorageProperties properties;
+
+    public ElasticIndexMigration(StudyRepository studyRepository, ElasticService elasticService, ElasticProperties elasticProperties) {
+        this.studyRepository = studyRepository;
+        this.elasticService = elasticService;
+        this.properties = elasticProperties.storage();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartUp() {
+        if (properties.layout() == ElasticProperties.Layout.SHARED && properties.migrateOnStartup()) {
+            migrateAll();
+        }
+    }
+
+    /**
+     * @return the number of migrated studies
+     */
+    public int migrateAll() {
+        int migrated = 0, failed = 0;
+        for (Study study : studyRepository.listStudyOrderByModifiedDesc()) {
+            try {
+                if (elasticService.migrateToSharedIndex(study.getStudyId())) {
+                    migrated++;
+                }
+            } catch (IOException | RuntimeException e) {
+                LOG.warn("Failed to migrate study_{} into the shared index: {}", study.getStudyId(), e.getMessage(), e);
+                failed++;
+            }
+        }
+        LOG.info("Migrated {} studies into the shared index {} ({} failed)", migrated, properties.sharedIndex(), failed);
+        return migrated;
+    }
+}
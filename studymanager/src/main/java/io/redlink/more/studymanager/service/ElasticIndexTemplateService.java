@@ -0,0 +1,135 @@
+/*
+ * Copyright LBI-DHP and/or licensed to LBI-DHP under one or more
+ * contributor license agreements (LBI-DHP: Ludwig Boltzmann Institute
+ * for Digital Health and Prevention -- A research institute of the
+ * Ludwig Boltzmann Gesellschaft, Österreichische Vereinigung zur
+ * Förderung der wissenschaftlichen Forschung).
+ * Licensed under the Elastic License 2.0.
+ */
+package io.redlink.more.studymanager.service;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.ElasticsearchException;
+import co.elastic.clients.elasticsearch._types.mapping.Property;
+import co.elastic.clients.elasticsearch._types.mapping.TypeMapping;
+import io.redlink.more.studymanager.core.factory.ObservationFactory;
+import io.redlink.more.studymanager.core.measurement.Measurement;
+import io.redlink.more.studymanager.properties.ElasticProperties;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Manages the index-template for the {@code study_<id>} indices, so they no longer rely on dynamic mapping.
+ * <p>
+ * Ids are mapped as {@code keyword} instead of {@code text}, timestamps as {@code date} and the datapoint-values
+ * according to the {@link io.redlink.more.studymanager.core.measurement.MeasurementSet} of the observation-factories.
+ * The ids keep a {@code .keyword} sub-field, so queries work on indices created before the template as well;
+ * all id-queries use this sub-field, the parent is not indexed to avoid a second inverted index.
+ * The template only applies to newly created indices, it covers the per-study indices as well as the shared index.
+ */
+@Service
+@EnableConfigurationProperties({ElasticProperties.class})
+public class ElasticIndexTemplateService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ElasticIndexTemplateService.class);
+
+    static final String TEMPLATE_NAME = "more-study-data";
+    static final String INDEX_PATTERN = "study_*";
+    /** increase on every change of the mappings */
+    static final long TEMPLATE_VERSION = 2;
+
+    private static final String DATA_FIELD_PREFIX = "data_";
+    private static final List<String> KEYWORD_FIELDS = List.of(
+            "datapoint_id", "study_id", "study_group_id", "participant_id",
+            "observation_id", "observation_type", "action_id", "action_type", "data_type");
+    private static final List<String> DATE_FIELDS = List.of("storage_date", "effective_time_frame");
+
+    private final ElasticsearchClient client;
+    private final ElasticProperties elasticProperties;
+    private final Map<String, ObservationFactory> observationFactories;
+
+    public ElasticIndexTemplateService(ElasticsearchClient client, ElasticProperties elasticProperties,
+                                       Map<String, ObservationFactory> observationFactories) {
+        this.client = client;
+        this.elasticProperties = elasticProperties;
+        this.observationFactories = observationFactories;
+    }
+
+    @EventListener(ContextRefreshedEvent.class)
+    public void putIndexTemplate() {
+        try {
+            client.indices().putIndexTemplate(t -> t
+                    .name(TEMPLATE_NAME)
+                    .indexPatterns(INDEX_PATTERN, elasticProperties.storage().sharedIndex())
+                    .version(TEMPLATE_VERSION)
+                    .template(tt -> {
+                        tt.mappings(buildMappings(observationFactories.values()));
+                        if (StringUtils.isNotBlank(elasticProperties.numberOfShards())) {
+                            tt.settings(s -> s.numberOfShards(elasticProperties.numberOfShards()));
+                        }
+                        return tt;
+                    })
+            );
+            LOG.info("Updated index-template {} (version {})", TEMPLATE_NAME, TEMPLATE_VERSION);
+        } catch (IOException | ElasticsearchException e) {
+            LOG.warn("Could not update index-template {}, new study-indices use dynamic mappings: {}",
+                    TEMPLATE_NAME, e.getMessage());
+        }
+    }
+
+    static TypeMapping buildMappings(Collection<ObservationFactory> observationFactories) {
+        final Map<String, Property> properties = new HashMap<>();
+        KEYWORD_FIELDS.forEach(field -> properties.put(field, Property.of(p -> p
+                .keyword(k -> k.index(false).fields("keyword", f -> f.keyword(kk -> kk))))));
+        DATE_FIELDS.forEach(field -> properties.put(field, Property.of(p -> p.date(d -> d))));
+
+        final Map<String, Measurement.Type> measurements = new HashMap<>();
+        final Set<String> conflicting = new HashSet<>();
+        observationFactories.stream()
+                .flatMap(factory -> factory.getMeasurementSet().values().stream())
+                .filter(measurement -> measurement.getId() != null)
+                .forEach(measurement -> {
+                    final Measurement.Type previous = measurements.putIfAbsent(measurement.getId(), measurement.getType());
+                    if (previous != null && previous != measurement.getType()) {
+                        conflicting.add(measurement.getId());
+                    }
+                });
+        if (!conflicting.isEmpty()) {
+            LOG.warn("Measurements {} have different types, using dynamic mapping", conflicting);
+        }
+        measurements.forEach((id, type) -> {
+            if (!conflicting.contains(id)) {
+                toProperty(type).ifPresent(property -> properties.put(DATA_FIELD_PREFIX + id, property));
+            }
+        });
+
+        return TypeMapping.of(m -> m.properties(properties));
+    }
+
+    /**
+     * Strings keep the dynamic text-mapping (with {@code .keyword}), they are matched as phrases.
+     */
+    private static Optional<Property> toProperty(Measurement.Type type) {
+        return switch (type) {
+            case INTEGER -> Optional.of(Property.of(p -> p.long_(l -> l)));
+            case DOUBLE -> Optional.of(Property.of(p -> p.double_(d -> d)));
+            case BOOLEAN -> Optional.of(Property.of(p -> p.boolean_(b -> b)));
+            case DATE -> Optional.of(Property.of(p -> p.date(d -> d)));
+            case STRING, OBJECT -> Optional.empty();
+        };
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright LBI-DHP and/or licensed to LBI-DHP under one or more
+ * contributor license agreements (LBI-DHP: Ludwig Boltzmann Institute
+ * for Digital Health and Prevention -- A research institute of the
+ * Ludwig Boltzmann Gesellschaft, Österreichische Vereinigung zur
+ * Förderung der wissenschaftlichen Forschung).
+ * Licensed under the Elastic License 2.0.
+ */
+package io.redlink.more.studymanager.service;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._helpers.bulk.BulkIngester;
+import co.elastic.clients.elasticsearch._helpers.bulk.BulkListener;
+import co.elastic.clients.elasticsearch.core.BulkRequest;
+import co.elastic.clients.elasticsearch.core.BulkResponse;
+import co.elastic.clients.elasticsearch.core.bulk.BulkOperation;
+import co.elastic.clients.elasticsearch.core.bulk.BulkResponseItem;
+import io.redlink.more.studymanager.properties.ElasticProperties;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Buffers index-operations and sends them to elastic in bulk-requests.
+ * <p>
+ * Requests are flushed by number of operations, estimated size or age (see {@link ElasticProperties.BulkProperties}).
+ * Once {@code maxConcurrentRequests} are in flight, {@link #index(String, Object)} blocks the caller until
+ * a request completes. Items rejected by elastic with a retryable status are re-submitted with exponential backoff.
+ */
+@Service
+@EnableConfigurationProperties({ElasticProperties.class})
+public class ElasticIngestService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ElasticIngestService.class);
+
+    private final ElasticProperties.BulkProperties properties;
+
+    private final ScheduledExecutorService retryScheduler;
+
+    private final BulkIngester<Integer> ingester;
+
+    public ElasticIngestService(ElasticsearchClient client, ElasticProperties elasticProperties) {
+        this.properties = elasticProperties.bulk();
+        this.retryScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            final Thread t = new Thread(r, "elastic-bulk-retry");
+            t.setDaemon(true);
+            return t;
+        });
+        this.ingester = BulkIngester.of(b -> b
+                .client(client)
+                .maxOperations(properties.maxOperations())
+                .maxSize(properties.maxSize().toBytes())
+                .maxConcurrentRequests(properties.maxConcurrentRequests())
+                .flushInterval(properties.flushInterval().toMillis(), TimeUnit.MILLISECONDS)
+                .listener(new RetryListener())
+        );
+    }
+
+    /**
+     * Queue a document for indexing. Blocks if elastic can not keep up with the ingest rate.
+     */
+    public void index(String index, Object document) {
+        ingester.add(op -> op.index(i -> i.index(index).document(document)), 0);
+    }
+
+    /**
+     * Send all buffered operations now.
+     */
+    public void flush() {
+        ingester.flush();
+    }
+
+    /**
+     * Flush the buffered operations and wait for in-flight requests, then stop the retries.
+     */
+    @PreDestroy
+    public void close() {
+        ingester.close();
+        final int pendingRetries = retryScheduler.shutdownNow().size();
+        if (pendingRetries > 0) {
+            LOG.warn("Dropping {} datapoints scheduled for retry on shutdown", pendingRetries);
+        }
+    }
+
+    private void retry(BulkOperation operation, int attempt) {
+        final long delay = properties.retryBackoff().toMillis() << (attempt - 1);
+        try {
+            retryScheduler.schedule(() -> ingester.add(operation, attempt), delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // the retry-scheduler is shut down
+            LOG.warn("Dropping datapoint for {} on shutdown instead of scheduling retry #{}",
+                    operation.isIndex() ? operation.index().index() : operation._kind(), attempt);
+        }
+    }
+
+    private static boolean isRetryable(int status) {
+        return status == 429 || status >= 500;
+    }
+
+    private class RetryListener implements BulkListener<Integer> {
+
+        @Override
+        public void beforeBulk(long executionId, BulkRequest request, List<Integer> contexts) {
+            LOG.debug("Sending bulk-request #{} with {} operations", executionId, request.operations().size());
+        }
+
+        @Override
+        public void afterBulk(long executionId, BulkRequest request, List<Integer> contexts, BulkResponse response) {
+            if (!response.errors()) {
+                return;
+            }
+
+            int retried = 0, dropped = 0;
+            final List<BulkResponseItem> items = response.items();
+            for (int i = 0; i < items.size(); i++) {
+                final BulkResponseItem item = items.get(i);
+                if (item.error() == null) {
+                    continue;
+                }
+                final int attempt = Objects.requireNonNullElse(contexts.get(i), 0);
+                if (isRetryable(item.status()) && attempt < properties.maxRetries()) {
+                    retry(request.operations().get(i), attempt + 1);
+                    retried++;
+                } else {
+                    LOG.warn("Could not store datapoint in {} (status {}): {}",
+                            item.index(), item.status(), item.error().reason());
+                    dropped++;
+                }
+            }
+            LOG.info("Bulk-request #{} partially failed: {} operations scheduled for retry, {} dropped",
+                    executionId, retried, dropped);
+        }
+
+        @Override
+        public void afterBulk(long executionId, BulkRequest request, List<Integer> contexts, Throwable failure) {
+            int retried = 0;
+            for (int i = 0; i < contexts.size(); i++) {
+                final int attempt = Objects.requireNonNullElse(contexts.get(i), 0);
+                if (attempt < properties.maxRetries()) {
+                    retry(request.operations().get(i), attempt + 1);
+                    retried++;
+                }
+            }
+            LOG.warn("Bulk-request #{} failed, {} of {} operations scheduled for retry: {}",
+                    executionId, retried, contexts.size(), failure.getMessage(), failure);
+        }
+    }
+}
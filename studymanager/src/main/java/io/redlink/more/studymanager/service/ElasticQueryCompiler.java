@@ -0,0 +1,87 @@
+/*
+ * Copyright LBI-DHP and/or licensed to LBI-DHP under one or more
+ * contributor license agreements (LBI-DHP: Ludwig Boltzmann Institute
+ * for Digital Health and Prevention -- A research institute of the
+ * Ludwig Boltzmann Gesellschaft, Österreichische Vereinigung zur
+ * Förderung der wissenschaftlichen Forschung).
+ * Licensed under the Elastic License 2.0.
+ */
+package io.redlink.more.studymanager.service;
+
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import co.elastic.clients.elasticsearch._types.query_dsl.RangeQuery;
+import co.elastic.clients.json.JsonData;
+import co.elastic.clients.util.ObjectBuilder;
+import io.redlink.more.studymanager.core.io.DataQuery;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Compiles a {@link DataQuery} into an elastic query that uses filter-context only,
+ * so the clauses are not scored and can be cached by elastic.
+ */
+final class ElasticQueryCompiler {
+
+    private static final String DATA_FIELD_PREFIX = "data_";
+
+    private ElasticQueryCompiler() {}
+
+    static Query compile(DataQuery query) {
+        if (query instanceof DataQuery.Condition condition) {
+            return compileCondition(condition);
+        } else if (query instanceof DataQuery.All all) {
+            return Query.of(q -> q.bool(b -> b.filter(compileAll(all.queries()))));
+        } else if (query instanceof DataQuery.Any any) {
+            return Query.of(q -> q.bool(b -> b
+                    .should(compileAll(any.queries()))
+                    .minimumShouldMatch("1")));
+        }
+        throw new IllegalArgumentException("Unsupported query " + query);
+    }
+
+    private static List<Query> compileAll(List<DataQuery> queries) {
+        return queries.stream().map(ElasticQueryCompiler::compile).toList();
+    }
+
+    private static Query compileCondition(DataQuery.Condition condition) {
+        final String field = DATA_FIELD_PREFIX + condition.property();
+        final Object value = condition.value();
+        final Query observation = Query.of(q -> q.term(t -> t
+                .field("observation_id.keyword")
+                .value(String.valueOf(condition.observationId()))));
+        final Query data = switch (condition.operator()) {
+            case EQ -> equalTo(field, value);
+            case NEQ -> Query.of(q -> q.bool(b -> b.mustNot(equalTo(field, value))));
+            case LT -> range(field, r -> r.lt(JsonData.of(value)));
+            case LTE -> range(field, r -> r.lte(JsonData.of(value)));
+            case GT -> range(field, r -> r.gt(JsonData.of(value)));
+            case GTE -> range(field, r -> r.gte(JsonData.of(value)));
+        };
+        return Query.of(q -> q.bool(b -> b.filter(observation, data)));
+    }
+
+    private static Query equalTo(String field, Object value) {
+        if (value instanceof String s) {
+            // analyzed like the value stored in the text-field, as before with the query_string
+            return Query.of(q -> q.matchPhrase(m -> m.field(field).query(s)));
+        }
+        return Query.of(q -> q.term(t -> t.field(field).value(toFieldValue(value))));
+    }
+
+    private static Query range(String field, Function<RangeQuery.Builder, ObjectBuilder<RangeQuery>> bound) {
+        return Query.of(q -> q.range(r -> bound.apply(r.field(field))));
+    }
+
+    private static FieldValue toFieldValue(Object value) {
+        if (value instanceof Integer || value instanceof Long) {
+            return FieldValue.of(((Number) value).longValue());
+        } else if (value instanceof Number n) {
+            return FieldValue.of(n.doubleValue());
+        } else if (value instanceof Boolean b) {
+            return FieldValue.of(b);
+        }
+        return FieldValue.of(String.valueOf(value));
+    }
+}
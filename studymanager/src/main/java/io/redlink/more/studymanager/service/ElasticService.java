@@ -12,37 +12,68 @@ import co.elastic.clients.elasticsearch.ElasticsearchClient;
 import co.elastic.clients.elasticsearch._types.Conflicts;
 import co.elastic.clients.elasticsearch._types.ElasticsearchException;
 import co.elastic.clients.elasticsearch._types.FieldValue;
+import co.elastic.clients.elasticsearch._types.mapping.FieldType;
+import co.elastic.clients.elasticsearch._types.SlicedScroll;
 import co.elastic.clients.elasticsearch._types.SortOrder;
-import co.elastic.clients.elasticsearch._types.aggregations.StringTermsBucket;
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregation;
+import co.elastic.clients.elasticsearch._types.aggregations.CompositeAggregate;
+import co.elastic.clients.elasticsearch._types.aggregations.CompositeAggregationSource;
+import co.elastic.clients.elasticsearch._types.aggregations.CompositeBucket;
 import co.elastic.clients.elasticsearch._types.query_dsl.Query;
 import co.elastic.clients.elasticsearch.core.*;
 import co.elastic.clients.elasticsearch.core.search.Hit;
 import co.elastic.clients.elasticsearch.indices.CloseIndexRequest;
 import co.elastic.clients.elasticsearch.indices.DeleteIndexRequest;
 import co.elastic.clients.elasticsearch.indices.ExistsRequest;
+import co.elastic.clients.elasticsearch.indices.update_aliases.AddAction;
+import co.elastic.clients.elasticsearch.tasks.GetTasksResponse;
+import co.elastic.clients.json.JsonData;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
 import com.google.common.collect.Iterables;
+import io.redlink.more.studymanager.core.io.DataQuery;
+import io.redlink.more.studymanager.exception.BadRequestException;
 import io.redlink.more.studymanager.core.io.TimeRange;
+import io.redlink.more.studymanager.model.ExportFormat;
 import io.redlink.more.studymanager.model.ParticipationData;
 import io.redlink.more.studymanager.model.Study;
 import io.redlink.more.studymanager.model.data.ElasticDataPoint;
 import io.redlink.more.studymanager.model.data.SimpleDataPoint;
+import io.redlink.more.studymanager.model.data.SimpleDataPointPage;
 import io.redlink.more.studymanager.properties.ElasticProperties;
 import io.redlink.more.studymanager.utils.MapperUtils;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.stereotype.Service;
 
+import java.io.BufferedOutputStream;
 import java.io.IOException;
-import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
 
 @Service
 @EnableConfigurationProperties({ElasticProperties.class})
@@ -52,55 +83,179 @@ public class ElasticService {
 
     private static final int BATCH_SIZE_FOR_EXPORT_REQUESTS = 1000;
 
+    private static final String EXPORT_KEEP_ALIVE = "1m";
+
+    private static final String PARTICIPANT_ID_PREFIX = "participant_";
+
+    private static final int MAX_COMPILED_QUERIES = 1000;
+
+    private static final Duration STUDY_ALIAS_RECHECK = Duration.ofMinutes(1);
+
+    private static final Duration REINDEX_POLL_INTERVAL = Duration.ofSeconds(5);
+
     private final ElasticsearchClient client;
 
-    public ElasticService(ElasticsearchClient client) { this.client = client; }
+    private final ElasticIngestService ingestService;
 
-    public List<Integer> participantsThatMapQuery(Long studyId, Integer studyGroupId, String query, TimeRange timerange) {
-        SearchRequest.Builder builder = new SearchRequest.Builder();
-        builder
-                .index(getStudyIdString(studyId))
-                .size(0)
-                .query(q -> q.
-                        bool(b -> b.
-                                must(m -> m.
-                                        queryString(qs -> qs.
-                                                query(query))).
-                                filter(getFilters(studyId, studyGroupId, timerange))
-                        )).aggregations(
-                        "participant_ids",
-                        a -> a.terms(t -> t.
-                                field("participant_id.keyword").
-                                size(10000))
-                );
+    private final ElasticProperties.QueryProperties queryProperties;
+
+    private final ElasticProperties.StorageProperties storageProperties;
+
+    private final ElasticProperties.ExportProperties exportProperties;
+
+    /** reads the additional slices of all sliced exports */
+    private final ExecutorService exportExecutor;
+
+    /** studies known to have their alias in the shared index */
+    private final Set<Long> studyAliases = ConcurrentHashMap.newKeySet();
+
+    /**
+     * studies that (currently) can not get an alias in the shared index, because they still have their own index
+     * or creating the alias failed; re-checked after {@link #STUDY_ALIAS_RECHECK} instead of on every datapoint
+     */
+    private final Cache<Long, Boolean> studiesWithoutAlias = CacheBuilder.newBuilder()
+            .expireAfterWrite(STUDY_ALIAS_RECHECK)
+            .build();
+
+    /** compiled queries by trigger-configuration */
+    private final LoadingCache<DataQuery, Query> compiledQueries = CacheBuilder.newBuilder()
+            .maximumSize(MAX_COMPILED_QUERIES)
+            .build(CacheLoader.from(ElasticQueryCompiler::compile));
+
+    public ElasticService(ElasticsearchClient client, ElasticIngestService ingestService, ElasticProperties elasticProperties) {
+        this.client = client;
+        this.ingestService = ingestService;
+        this.queryProperties = elasticProperties.query();
+        this.storageProperties = elasticProperties.storage();
+        this.exportProperties = elasticProperties.export();
+        final AtomicInteger threadCount = new AtomicInteger();
+        this.exportExecutor = Executors.newFixedThreadPool(exportProperties.threads(),
+                r -> new Thread(r, "export-slice-" + threadCount.incrementAndGet()));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        exportExecutor.shutdownNow();
+    }
 
+    public BitSet participantsThatMapQuery(Long studyId, Integer studyGroupId, String query, TimeRange timerange) {
+        return participantsThatMapQuery(studyId, Query.of(q -> q.
+                bool(b -> b.
+                        must(m -> m.
+                                queryString(qs -> qs.
+                                        query(query))).
+                        filter(getFilters(studyId, studyGroupId, timerange))
+                )));
+    }
+
+    /**
+     * Participants with data matching the structured query. The query is compiled once and evaluated
+     * in filter-context only, so elastic can cache its clauses.
+     */
+    public BitSet participantsThatMapQuery(Long studyId, Integer studyGroupId, DataQuery query, TimeRange timerange) {
+        final Query compiled = compiledQueries.getUnchecked(query);
+        return participantsThatMapQuery(studyId, Query.of(q -> q.
+                bool(b -> b.
+                        filter(compiled).
+                        filter(getFilters(studyId, studyGroupId, timerange))
+                )));
+    }
+
+    /**
+     * The effective time of the latest datapoint matching the query per participant, considering only datapoints
+     * stored after {@code storedAfter}. Allows to evaluate a query incrementally, by merging the result
+     * with the one of a previous evaluation.
+     *
+     * @throws UncheckedIOException or {@link ElasticsearchException} if the query failed
+     */
+    public Map<Integer, Instant> latestMatchPerParticipant(Long studyId, Integer studyGroupId, DataQuery query, TimeRange timerange, Instant storedAfter) {
+        final Query compiled = compiledQueries.getUnchecked(query);
+        final List<Query> filters = getFilters(studyId, studyGroupId, timerange);
+        if (storedAfter != null) {
+            filters.add(Query.of(f -> f.
+                    range(r -> r.
+                            field("storage_date").
+                            gt(JsonData.of(storedAfter.toString()))
+                    )));
+        }
+        final Map<Integer, Instant> latestMatches = new HashMap<>();
         try {
-            if(indexExists(studyId)) {
-                return client.search(builder.build(), Map.class)
-                        .aggregations().get("participant_ids").sterms().buckets().array().stream()
-                        .map(StringTermsBucket::key)
-                        .map(FieldValue::stringValue)
-                        .map(s -> s.substring(12))
-                        .map(Integer::valueOf)
-                        .toList();
-            } else {
-                return List.of();
-            }
+            forEachParticipantBucket(studyId,
+                    Query.of(q -> q.bool(b -> b.filter(compiled).filter(filters))),
+                    Map.of("latest_match", Aggregation.of(a -> a.max(m -> m.field("effective_time_frame")))),
+                    (participantId, bucket) -> latestMatches.put(participantId,
+                            Instant.ofEpochMilli((long) bucket.aggregations().get("latest_match").max().value())));
+            return latestMatches;
+        } catch (IOException e) {
+            // an empty result would be taken for "no new matches", so the failure must reach the caller
+            throw new UncheckedIOException("Elastic Query failed", e);
+        }
+    }
+
+    /**
+     * Collect the ids of all participants with datapoints matching the query.
+     */
+    private BitSet participantsThatMapQuery(Long studyId, Query query) {
+        final BitSet participantIds = new BitSet();
+        try {
+            forEachParticipantBucket(studyId, query, Map.of(), (participantId, bucket) -> participantIds.set(participantId));
+            return participantIds;
         } catch (IOException | ElasticsearchException e) {
             LOG.error("Elastic Query failed", e);
-            return List.of();
+            return new BitSet();
         }
     }
 
+    /**
+     * Pages through the participants with datapoints matching the query using a composite aggregation,
+     * so the result is not truncated for large studies.
+     */
+    private void forEachParticipantBucket(Long studyId, Query query, Map<String, Aggregation> subAggregations,
+                                          BiConsumer<Integer, CompositeBucket> consumer) throws IOException {
+        if (!indexExists(studyId)) {
+            return;
+        }
+        Map<String, FieldValue> afterKey = null;
+        do {
+            final Map<String, FieldValue> after = afterKey;
+            final CompositeAggregate aggregate = client.search(s -> s
+                            .index(getStudyIdString(studyId))
+                            .size(0)
+                            .query(query)
+                            .aggregations("participant_ids", a -> a
+                                    .composite(c -> {
+                                        c.size(queryProperties.aggregationPageSize())
+                                                .sources(Map.of("participant_id", CompositeAggregationSource.of(cs -> cs
+                                                        .terms(t -> t.field("participant_id.keyword")))));
+                                        if (after != null) {
+                                            c.after(after);
+                                        }
+                                        return c;
+                                    })
+                                    .aggregations(subAggregations)
+                            ),
+                    Void.class)
+                    .aggregations()
+                    .get("participant_ids")
+                    .composite();
+
+            for (CompositeBucket bucket : aggregate.buckets().array()) {
+                consumer.accept(Integer.parseInt(
+                        bucket.key().get("participant_id").stringValue().substring(PARTICIPANT_ID_PREFIX.length())), bucket);
+            }
+            afterKey = aggregate.buckets().array().isEmpty() ? null : aggregate.afterKey();
+        } while (afterKey != null && !afterKey.isEmpty());
+    }
+
     private List<Query> getFilters(Long studyId, Integer studyGroupId, TimeRange timerange) {
         List<Query> queries = new ArrayList<>();
         queries.add(Query.of(f -> f.
                 term(t -> t.
-                        field("study_id").
+                        field("study_id.keyword").
                         value(getStudyIdString(studyId)))));
         if (studyGroupId != null) {
             queries.add(Query.of(f -> f.term(t -> t.
-                    field("study_group_id").
+                    field("study_group_id.keyword").
                     value(getStudyGroupIdString(studyGroupId)))));
         }
 
@@ -128,6 +283,10 @@ public class ElasticService {
 
     public boolean closeIndex(Study study) {
         try {
+            if (isStudyAlias(study.getStudyId())) {
+                LOG.warn("Can not close the index of study_{}, it is stored in the shared index", study.getStudyId());
+                return false;
+            }
             CloseIndexRequest indexRequest = new CloseIndexRequest.Builder()
                     .index(getStudyIdString(study))
                     .build();
@@ -143,8 +302,24 @@ public class ElasticService {
         return deleteIndex(study.getStudyId());
     }
 
+    /**
+     * Delete all datapoints of the study: the per-study index, or the study's datapoints
+     * and alias in the shared index.
+     */
     public boolean deleteIndex(Long studyId) {
         try {
+            if (isStudyAlias(studyId)) {
+                client.deleteByQuery(d -> d
+                        .index(getStudyIdString(studyId))
+                        .query(getStudyFilter(studyId))
+                        .conflicts(Conflicts.Proceed));
+                client.indices().deleteAlias(d -> d
+                        .index(storageProperties.sharedIndex())
+                        .name(getStudyIdString(studyId)));
+                studyAliases.remove(studyId);
+                studiesWithoutAlias.invalidate(studyId);
+                return true;
+            }
             DeleteIndexRequest indexRequest = new DeleteIndexRequest.Builder()
                     .index(getStudyIdString(studyId))
                     .ignoreUnavailable(true)
@@ -157,6 +332,150 @@ public class ElasticService {
         }
     }
 
+    /**
+     * With the {@code SHARED} layout, make sure the shared index and the filtered alias {@code study_<id>} exist,
+     * so datapoints written to the study (also by other services) end up in the shared index, routed by study.
+     * Studies that still have their own index keep writing to it until they are migrated.
+     */
+    public void ensureStudyIndex(long studyId) {
+        if (storageProperties.layout() != ElasticProperties.Layout.SHARED
+                || studyAliases.contains(studyId)
+                || studiesWithoutAlias.getIfPresent(studyId) != null) {
+            return;
+        }
+        final String index = getStudyIdString(studyId);
+        try {
+            if (client.indices().existsAlias(e -> e.name(index)).value()) {
+                studyAliases.add(studyId);
+                return;
+            }
+            if (client.indices().exists(e -> e.index(index)).value()) {
+                LOG.debug("{} has its own index, not migrated to the shared index yet", index);
+                studiesWithoutAlias.put(studyId, Boolean.TRUE);
+                return;
+            }
+            createSharedIndex();
+            client.indices().updateAliases(u -> u.actions(a -> a.add(getStudyAlias(studyId))));
+            studyAliases.add(studyId);
+        } catch (IOException | ElasticsearchException e) {
+            LOG.warn("Could not create the alias for {} in the shared index, retrying in {}: {}",
+                    index, STUDY_ALIAS_RECHECK, e.getMessage());
+            studiesWithoutAlias.put(studyId, Boolean.TRUE);
+        }
+    }
+
+    /**
+     * Move the datapoints of a per-study index into the shared index and replace the index by the filtered alias.
+     * The per-study index is made read-only before, and atomically swapped with the alias afterwards,
+     * so the copy is complete. <strong>While the migration runs, writes to the study fail</strong>
+     * (elastic responds with a {@code cluster_block_exception}), also those of other services like the gateway;
+     * migrate while ingestion is paused. If the migration fails, the index is made writable again
+     * and the study remains in its own index.
+     *
+     * @return {@code true} if the study was migrated, {@code false} if there was nothing to migrate
+     */
+    public boolean migrateToSharedIndex(long studyId) throws IOException {
+        final String index = getStudyIdString(studyId);
+        if (storageProperties.layout() != ElasticProperties.Layout.SHARED
+                || isStudyAlias(studyId)
+                || !client.indices().exists(e -> e.index(index)).value()) {
+            return false;
+        }
+        createSharedIndex();
+        setWriteBlock(index, true);
+        try {
+            final ReindexResponse response = reindexToSharedIndex(index);
+            client.indices().updateAliases(u -> u
+                    .actions(a -> a.removeIndex(ri -> ri.index(index)))
+                    .actions(a -> a.add(getStudyAlias(studyId))));
+            studyAliases.add(studyId);
+            studiesWithoutAlias.invalidate(studyId);
+            LOG.info("Migrated {} datapoints of {} into the shared index {}", response.total(), index, storageProperties.sharedIndex());
+            return true;
+        } catch (IOException | RuntimeException e) {
+            try {
+                setWriteBlock(index, false);
+            } catch (IOException | ElasticsearchException unblock) {
+                LOG.error("Could not remove the write-block from {}, remove it manually: {}", index, unblock.getMessage());
+                e.addSuppressed(unblock);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Run the reindex as task and poll for its completion, so large indices do not run into the client timeout.
+     */
+    private ReindexResponse reindexToSharedIndex(String index) throws IOException {
+        final String taskId = client.reindex(r -> r
+                .source(src -> src.index(index))
+                .dest(d -> d.index(storageProperties.sharedIndex()).routing("=" + index))
+                .refresh(true)
+                .waitForCompletion(false)).task();
+        try {
+            GetTasksResponse task;
+            do {
+                Thread.sleep(REINDEX_POLL_INTERVAL.toMillis());
+                task = client.tasks().get(g -> g.taskId(taskId));
+            } while (!task.completed());
+
+            if (task.error() != null) {
+                throw new IOException("Reindex of " + index + " failed: " + task.error().reason());
+            }
+            final ReindexResponse response = task.response().to(ReindexResponse.class, client._jsonpMapper());
+            if (!response.failures().isEmpty()) {
+                throw new IOException("Reindex of " + index + " failed: " + response.failures().get(0).cause().reason());
+            }
+            return response;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            client.tasks().cancel(c -> c.taskId(taskId));
+            throw new IOException("Reindex of " + index + " interrupted", e);
+        }
+    }
+
+    private void setWriteBlock(String index, boolean block) throws IOException {
+        client.indices().putSettings(p -> p
+                .index(index)
+                .settings(s -> s.blocks(b -> b.write(block))));
+    }
+
+    private boolean isStudyAlias(long studyId) throws IOException {
+        if (storageProperties.layout() != ElasticProperties.Layout.SHARED) {
+            return false;
+        }
+        return studyAliases.contains(studyId)
+                || client.indices().existsAlias(e -> e.name(getStudyIdString(studyId))).value();
+    }
+
+    private void createSharedIndex() throws IOException {
+        if (client.indices().exists(e -> e.index(storageProperties.sharedIndex())).value()) {
+            return;
+        }
+        try {
+            // mappings and settings are provided by the index-template
+            client.indices().create(c -> c.index(storageProperties.sharedIndex()));
+        } catch (ElasticsearchException e) {
+            if (!"resource_already_exists_exception".equals(e.error().type())) {
+                throw e;
+            }
+        }
+    }
+
+    private AddAction getStudyAlias(long studyId) {
+        final String alias = getStudyIdString(studyId);
+        return AddAction.of(a -> a
+                .index(storageProperties.sharedIndex())
+                .alias(alias)
+                .routing(alias)
+                .isWriteIndex(true)
+                .filter(getStudyFilter(studyId)));
+    }
+
+    private static Query getStudyFilter(long studyId) {
+        return Query.of(q -> q.term(t -> t.field("study_id.keyword").value(getStudyIdString(studyId))));
+    }
+
     public void removeDataForParticipant(Long studyId, Integer participantId) {
         try {
             DeleteByQueryRequest deleteByQueryRequest = new DeleteByQueryRequest.Builder()
@@ -188,81 +507,65 @@ public class ElasticService {
     }
 
     public void setDataPoint(Long studyId, ElasticDataPoint elasticActionDataPoint) {
-        try {
-            client.index(i -> i.index(getStudyIdString(studyId)).document(elasticActionDataPoint));
-        } catch (IOException e) {
-            LOG.warn("Could nor store datapoint", e);
-        }
+        ensureStudyIndex(studyId);
+        ingestService.index(getStudyIdString(studyId), elasticActionDataPoint);
     }
 
+    /**
+     * Aggregate the latest datapoint per (observation, participant, study-group).
+     * Uses a composite aggregation and pages through all buckets using the {@code after_key},
+     * so the result is complete regardless of the size of the study.
+     */
     public List<ParticipationData> getParticipationData(Long studyId){
-        SearchRequest.Builder builder = new SearchRequest.Builder();
-        builder.index(getStudyIdString(studyId))
-                .size(0)
-                .aggregations("observation_ids",
-                        a -> a.terms(t -> t
-                                        .field("observation_id.keyword")
-                                        .size(10000))
-                                .aggregations("participant_ids",
-                                        a3 -> a3.terms(t -> t
-                                                        .field("participant_id.keyword")
-                                                        .size(10000))
-                                                .aggregations("latest_data",
-                                                        a4 -> a4.max(m -> m
-                                                                .field("storage_date"))
-                                                ).aggregations("study_group_id",
-                                                        a5 -> a5.terms(t -> t
-                                                                .field("study_group_id.keyword")
-                                                                .size(10000))
-                                                )
-                                )
-                );
+        final String index = getStudyIdString(studyId);
+        final List<Map<String, CompositeAggregationSource>> sources = List.of(
+                Map.of("observation_id", CompositeAggregationSource.of(s -> s
+                        .terms(t -> t.field("observation_id.keyword")))),
+                Map.of("participant_id", CompositeAggregationSource.of(s -> s
+                        .terms(t -> t.field("participant_id.keyword")))),
+                Map.of("study_group_id", CompositeAggregationSource.of(s -> s
+                        .terms(t -> t.field("study_group_id.keyword").missingBucket(true))))
+        );
+
         try{
             List<ParticipationData> participationDataList = new ArrayList<>();
-
-            List<StringTermsBucket> observationBuckets =  client.search(builder.build(), Map.class)
-                    .aggregations()
-                    .get("observation_ids")
-                    .sterms()
-                    .buckets()
-                    .array();
-            for(StringTermsBucket observation : observationBuckets){
-                List<StringTermsBucket> participantBuckets = observation
+            Map<String, FieldValue> afterKey = null;
+            do {
+                final Map<String, FieldValue> after = afterKey;
+                final CompositeAggregate aggregate = client.search(b -> b
+                                .index(index)
+                                .size(0)
+                                .aggregations("participation", a -> a
+                                        .composite(c -> {
+                                            c.size(queryProperties.aggregationPageSize()).sources(sources);
+                                            if (after != null) {
+                                                c.after(after);
+                                            }
+                                            return c;
+                                        })
+                                        .aggregations("latest_data", a2 -> a2.max(m -> m.field("storage_date")))
+                                ),
+                        Void.class)
                         .aggregations()
-                        .get("participant_ids")
-                        .sterms()
-                        .buckets()
-                        .array();
-                for(StringTermsBucket participant : participantBuckets){
-                    String lastDataReceived = participant
-                            .aggregations()
-                            .get("latest_data")
-                            .max()
-                            .valueAsString();
-                    List<StringTermsBucket> studyGroupBuckets = participant
-                            .aggregations()
-                            .get("study_group_id")
-                            .sterms()
-                            .buckets()
-                            .array();
-                    ParticipationData.NamedId studyGroup = null;
-                    if(studyGroupBuckets.size() > 0)
-                             studyGroup = new ParticipationData.NamedId(Integer.parseInt(
-                                     studyGroupBuckets
-                                     .get(0)
-                                     .key()
-                                     .stringValue()
-                                     .substring(12)), null);
+                        .get("participation")
+                        .composite();
+
+                for (CompositeBucket bucket : aggregate.buckets().array()) {
+                    final Map<String, FieldValue> key = bucket.key();
+                    String lastDataReceived = bucket.aggregations().get("latest_data").max().valueAsString();
                     assert lastDataReceived != null;
+                    final FieldValue studyGroupId = key.get("study_group_id");
                     participationDataList.add(new ParticipationData(
-                            new ParticipationData.NamedId(Integer.parseInt(observation.key().stringValue().replaceAll("observation_", "")), null),
+                            new ParticipationData.NamedId(Integer.parseInt(key.get("observation_id").stringValue().replaceAll("observation_", "")), null),
                             "observationType",
-                            new ParticipationData.NamedId(Integer.parseInt(participant.key().stringValue().substring(12)), null),
-                            studyGroup,
+                            new ParticipationData.NamedId(Integer.parseInt(key.get("participant_id").stringValue().substring(12)), null),
+                            studyGroupId == null || studyGroupId.isNull() ? null :
+                                    new ParticipationData.NamedId(Integer.parseInt(studyGroupId.stringValue().substring(12)), null),
                             true,
                             Instant.parse(lastDataReceived)));
                 }
-            }
+                afterKey = aggregate.buckets().array().isEmpty() ? null : aggregate.afterKey();
+            } while (afterKey != null && !afterKey.isEmpty());
             return participationDataList;
         }catch (IOException | ElasticsearchException e) {
             LOG.error("Elastic Query failed", e);
@@ -270,44 +573,146 @@ public class ElasticService {
         }
     }
 
-    public void exportData(Long studyId, OutputStream outputStream) throws IOException {
+    /**
+     * Stream all datapoints of the study to the provided writer.
+     * Pages through a point-in-time so that datapoints stored during the export are neither skipped nor duplicated.
+     */
+    public void exportData(Long studyId, DataExportWriter writer) throws IOException {
+        String index = getStudyIdString(studyId);
+
+        if(!client.indices().exists(e -> e.index(index)).value()) {
+            return;
+        }
+
+        final Query query = getExportQuery(studyId);
+        String pitId = client.openPointInTime(p -> p.index(index).keepAlive(k -> k.time(EXPORT_KEEP_ALIVE))).id();
+        try {
+            pitId = exportSlice(pitId, query, null, writer);
+        } finally {
+            closePointInTime(pitId);
+        }
+    }
+
+    /**
+     * Stream all datapoints of the study to the provided writer, reading the point-in-time in {@code slices}
+     * concurrent slices. The first slice is streamed directly, so the client receives data right away;
+     * the other slices are buffered in temporary files meanwhile and written afterwards in slice-order,
+     * so the output of an unchanged index is deterministic.
+     * The slices are read on a pool shared by all exports, the temporary files are stored in the
+     * configured spool-directory (see {@link ElasticProperties.ExportProperties}).
+     */
+    public void exportData(Long studyId, int slices, DataExportWriter writer) throws IOException {
+        if (slices <= 1) {
+            exportData(studyId, writer);
+            return;
+        }
+
         String index = getStudyIdString(studyId);
 
         if(!client.indices().exists(e -> e.index(index)).value()) {
             return;
         }
 
-        SearchRequest request = getQuery(index, null);
-        SearchResponse<JsonNode> rsp = client.search(request, JsonNode.class);
+        final Query query = getExportQuery(studyId);
+        final String pitId = client.openPointInTime(p -> p.index(index).keepAlive(k -> k.time(EXPORT_KEEP_ALIVE))).id();
+        // every slice might continue on a different point-in-time id, all of them need to be closed
+        final Set<String> pitIds = ConcurrentHashMap.newKeySet();
+        pitIds.add(pitId);
+        final List<Path> parts = new ArrayList<>(slices - 1);
+        final List<Future<String>> exports = new ArrayList<>(slices - 1);
+        try {
+            Files.createDirectories(exportProperties.spoolDirectory());
+            for (int i = 1; i < slices; i++) {
+                final Path part = Files.createTempFile(exportProperties.spoolDirectory(), index + "-slice-" + i + "-", ".ndjson");
+                parts.add(part);
+                final SlicedScroll slice = getSlice(i, slices);
+                exports.add(exportExecutor.submit(() -> {
+                    try (DataExportWriter partWriter = DataExportWriter.create(ExportFormat.NDJSON,
+                            new BufferedOutputStream(Files.newOutputStream(part)), false)) {
+                        return exportSlice(pitId, query, slice, partWriter);
+                    }
+                }));
+            }
 
-        while (rsp.hits().hits().size() > 0) {
-            writeHits(rsp.hits().hits(), outputStream);
-            outputStream.flush();
-            List<FieldValue> searchAfterSort = Iterables.getLast(rsp.hits().hits()).sort();
-            request = getQuery(index, searchAfterSort);
-            rsp = client.search(request, JsonNode.class);
-            if(rsp.hits().hits().size() > 0) {
-                outputStream.write(",".getBytes(StandardCharsets.UTF_8));
+            pitIds.add(exportSlice(pitId, query, getSlice(0, slices), writer));
+
+            for (int i = 0; i < exports.size(); i++) {
+                pitIds.add(exports.get(i).get());
+                try (MappingIterator<JsonNode> datapoints = MapperUtils.MAPPER.readerFor(JsonNode.class).readValues(parts.get(i).toFile())) {
+                    while (datapoints.hasNext()) {
+                        writer.write(datapoints.next());
+                    }
+                }
+                writer.flush();
+                Files.deleteIfExists(parts.get(i));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Export of " + index + " interrupted", e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof IOException io ? io : new IOException("Export of " + index + " failed", e.getCause());
+        } finally {
+            exports.forEach(export -> export.cancel(true));
+            pitIds.forEach(this::closePointInTime);
+            for (Path part : parts) {
+                Files.deleteIfExists(part);
             }
         }
     }
 
-    private void writeHits(List<Hit<JsonNode>> hits, OutputStream outputStream) throws IOException {
-        String datapoints = hits.stream()
-                .map(Hit::source)
-                .map(MapperUtils::writeValueAsString)
-                .collect(Collectors.joining(","));
-        outputStream.write(datapoints.getBytes(StandardCharsets.UTF_8));
+    private static SlicedScroll getSlice(int id, int max) {
+        return SlicedScroll.of(s -> s.id(String.valueOf(id)).max(max));
+    }
+
+    /**
+     * Page through (a slice of) the point-in-time and write all hits.
+     *
+     * @return the most recent point-in-time id
+     */
+    private String exportSlice(String pitId, Query query, SlicedScroll slice, DataExportWriter writer) throws IOException {
+        List<FieldValue> searchAfterSort = null;
+        do {
+            SearchResponse<JsonNode> rsp = client.search(getExportRequest(pitId, query, slice, searchAfterSort), JsonNode.class);
+            if (rsp.pitId() != null) {
+                pitId = rsp.pitId();
+            }
+            List<Hit<JsonNode>> hits = rsp.hits().hits();
+            for (Hit<JsonNode> hit : hits) {
+                writer.write(hit.source());
+            }
+            writer.flush();
+            searchAfterSort = hits.size() < BATCH_SIZE_FOR_EXPORT_REQUESTS ? null : Iterables.getLast(hits).sort();
+        } while (searchAfterSort != null);
+        return pitId;
+    }
+
+    private void closePointInTime(String pitId) {
+        try {
+            client.closePointInTime(c -> c.id(pitId));
+        } catch (IOException | ElasticsearchException e) {
+            LOG.warn("Could not close point-in-time: {}", e.getMessage());
+        }
     }
 
-    private SearchRequest getQuery(String index, List<FieldValue> searchAfterSort) {
+    /**
+     * With the shared index the study is filtered explicitly, instead of relying on the alias-filter
+     * being applied to the point-in-time.
+     */
+    private Query getExportQuery(long studyId) throws IOException {
+        return isStudyAlias(studyId) ? getStudyFilter(studyId) : Query.of(q -> q.matchAll(m -> m));
+    }
+
+    private SearchRequest getExportRequest(String pitId, Query query, SlicedScroll slice, List<FieldValue> searchAfterSort) {
         SearchRequest.Builder builder = new SearchRequest.Builder();
-        builder.index(index)
-                .query(q -> q.matchAll(m -> m))
-                //.pit(p -> p.id(pitId).keepAlive(k -> k.time("1m")))
+        builder.query(query)
+                .pit(p -> p.id(pitId).keepAlive(k -> k.time(EXPORT_KEEP_ALIVE)))
+                // with a pit, elastic adds the implicit _shard_doc tiebreaker
                 .sort(s -> s.field(f -> f.field("effective_time_frame").order(SortOrder.Asc)))
                 .size(BATCH_SIZE_FOR_EXPORT_REQUESTS);
 
+        if(slice != null) {
+            builder.slice(slice);
+        }
         if(searchAfterSort != null) {
             builder.searchAfter(searchAfterSort);
         }
@@ -315,34 +720,90 @@ public class ElasticService {
         return builder.build();
     }
 
-    public List<SimpleDataPoint> listDataPoints(
-            Long studyId, Integer participantId, Integer observationId, String isoDate, int size) throws IOException {
+    /**
+     * List the datapoints of a study, most recent first.
+     *
+     * @param cursor continue after the last datapoint of a previous page, see {@link SimpleDataPointPage#nextCursor()}
+     * @param fields the {@code data}-fields to fetch, all if {@code null} or empty
+     */
+    public SimpleDataPointPage listDataPoints(
+            Long studyId, Integer participantId, Integer observationId, String isoDate, int size,
+            String cursor, List<String> fields) throws IOException {
         SearchRequest.Builder builder = new SearchRequest.Builder();
-        builder.query(q -> q.bool(b ->b.must(m ->
-                        m.term(t -> t.field("study_id").value("study_" + studyId)))
+        builder.index(getStudyIdString(studyId))
+                .ignoreUnavailable(true)
+                .query(q -> q.bool(b ->b.must(m ->
+                        m.term(t -> t.field("study_id.keyword").value("study_" + studyId)))
                         .filter(getFilters(participantId, observationId, isoDate))))
                 .sort(s -> s.field(f -> f.field("effective_time_frame").order(SortOrder.Desc)))
+                .sort(s -> s.field(f -> f.field("datapoint_id.keyword").order(SortOrder.Desc).unmappedType(FieldType.Keyword)))
+                .source(s -> s.filter(f -> f.includes(getDataPointFields(fields)).excludes("data_type")))
                 .size(size);
+        if (cursor != null) {
+            builder.searchAfter(decodeCursor(cursor));
+        }
 
         SearchResponse<Map> rsp = client.search(builder.build(), Map.class);
 
-        return rsp.hits().hits().stream().map(h -> new SimpleDataPoint()
-                .setObservationId(Integer.parseInt(h.source().get("observation_id").toString()))
-                .setParticipantId(Integer.parseInt(h.source().get("participant_id").toString().substring(12)))
-                .setTime(h.source().get("effective_time_frame").toString())
-                .setData(toData(h.source()))).toList();
+        final List<Hit<Map>> hits = rsp.hits().hits();
+        return new SimpleDataPointPage(
+                hits.stream().map(h -> new SimpleDataPoint()
+                        .setObservationId(Integer.parseInt(h.source().get("observation_id").toString()))
+                        .setParticipantId(Integer.parseInt(h.source().get("participant_id").toString().substring(12)))
+                        .setTime(h.source().get("effective_time_frame").toString())
+                        .setData(toData(h.source()))).toList(),
+                hits.isEmpty() || hits.size() < size ? null : encodeCursor(Iterables.getLast(hits).sort())
+        );
+    }
+
+    private static List<String> getDataPointFields(List<String> fields) {
+        final List<String> includes = new ArrayList<>(List.of("observation_id", "participant_id", "effective_time_frame"));
+        if (fields == null || fields.isEmpty()) {
+            includes.add("data_*");
+        } else {
+            fields.forEach(f -> includes.add("data_" + f));
+        }
+        return includes;
+    }
+
+    static String encodeCursor(List<FieldValue> sort) {
+        final List<Object> values = sort.stream()
+                .map(FieldValue::_get)
+                .toList();
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(MapperUtils.writeValueAsString(values).getBytes(StandardCharsets.UTF_8));
+    }
+
+    static List<FieldValue> decodeCursor(String cursor) {
+        final Object[] values;
+        try {
+            values = MapperUtils.readValue(
+                    new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8), Object[].class);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid cursor: " + cursor);
+        }
+        // one value per sort-field: effective_time_frame (epoch millis), datapoint_id (null if missing)
+        if (values == null || values.length != 2
+                || !(values[0] instanceof Long || values[0] instanceof Integer)
+                || !(values[1] == null || values[1] instanceof String)) {
+            throw new BadRequestException("Invalid cursor: " + cursor);
+        }
+        return List.of(
+                FieldValue.of(((Number) values[0]).longValue()),
+                values[1] == null ? FieldValue.NULL : FieldValue.of((String) values[1])
+        );
     }
 
     private List<Query> getFilters(Integer participantId, Integer observationId, String isoDate) {
         List<Query> filters = new ArrayList<>();
         if(participantId != null) {
-            filters.add(Query.of(q -> q.term(t -> t.field("participant_id").value("participant_" + participantId))));
+            filters.add(Query.of(q -> q.term(t -> t.field("participant_id.keyword").value("participant_" + participantId))));
         }
 
         if(observationId != null) {
-            filters.add(Query.of(q -> q.term(t -> t.field("observation_id").value(observationId))));
+            filters.add(Query.of(q -> q.term(t -> t.field("observation_id.keyword").value(observationId))));
         } else {
-            filters.add(Query.of(q -> q.exists(e -> e.field("observation_id"))));
+            filters.add(Query.of(q -> q.exists(e -> e.field("observation_id.keyword"))));
         }
 
         if(isoDate != null) {
@@ -8,12 +8,16 @@
  */
 package io.redlink.more.studymanager.service;
 
+import com.google.common.collect.Lists;
 import com.google.firebase.messaging.*;
 import io.redlink.more.studymanager.utils.MapperUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -50,10 +54,52 @@ public class FirebaseMessagingService {
         this.firebaseMessaging = firebaseMessaging;
     }
 
-    public String sendNotification(String title, String body, Map<String, String> data, String token) throws FirebaseMessagingException {
+    /**
+     * Maximum number of messages Firebase accepts in a single batch-request.
+     */
+    public static final int MAX_BATCH_SIZE = 500;
+
+    /**
+     * Send the provided messages using the Firebase batch-endpoint, in chunks of {@link #MAX_BATCH_SIZE}.
+     *
+     * @return one {@link SendResult} per request, in the same order as the requests.
+     */
+    public List<SendResult> sendNotifications(List<SendRequest> requests) {
+        if (firebaseMessaging == null) {
+            log.warn("Not sending {} Messages", requests.size());
+            return Collections.nCopies(requests.size(), new SendResult(null, null));
+        }
 
-        String uuid = UUID.randomUUID().toString();
+        final List<SendResult> results = new ArrayList<>(requests.size());
+        for (List<SendRequest> chunk : Lists.partition(requests, MAX_BATCH_SIZE)) {
+            final List<String> uuids = new ArrayList<>(chunk.size());
+            final List<Message> messages = new ArrayList<>(chunk.size());
+            for (SendRequest request : chunk) {
+                final String uuid = UUID.randomUUID().toString();
+                uuids.add(uuid);
+                messages.add(buildMessage(request.title(), request.body(), request.data(), request.token(), uuid));
+            }
+
+            try {
+                final List<SendResponse> responses = firebaseMessaging.sendEach(messages).getResponses();
+                for (int i = 0; i < responses.size(); i++) {
+                    final SendResponse response = responses.get(i);
+                    if (response.isSuccessful()) {
+                        log.debug("Successfully sent FCM Message ({}:{})", response.getMessageId(), uuids.get(i));
+                        results.add(new SendResult(uuids.get(i), null));
+                    } else {
+                        results.add(new SendResult(null, response.getException()));
+                    }
+                }
+            } catch (FirebaseMessagingException e) {
+                // the whole batch-request failed, not only some messages
+                chunk.forEach(r -> results.add(new SendResult(null, e)));
+            }
+        }
+        return results;
+    }
 
+    private static Message buildMessage(String title, String body, Map<String, String> data, String token, String uuid) {
         log.info("Send data: {}", MapperUtils.writeValueAsString(data));
 
         if(data == null) {
@@ -79,16 +125,7 @@ public class FirebaseMessagingService {
             messageBuilder.setNotification(notification);
         }
 
-        Message message = messageBuilder.build();
-
-        if (firebaseMessaging == null) {
-            log.warn("Not sending Message");
-        } else {
-            final String msgId = firebaseMessaging.send(message);
-            log.debug("Successfully sent FCM Message ({}:{})", msgId, uuid);
-            return uuid;
-        }
-        return null;
+        return messageBuilder.build();
     }
 
     private static ApnsConfig getApnsConfig(String apsCategory, apnsPushType type, apnsPriority priority) {
@@ -99,4 +136,14 @@ public class FirebaseMessagingService {
                 .setAps(Aps.builder().setCategory(apsCategory).build())
                 .build();
     }
+
+    public record SendRequest(String title, String body, Map<String, String> data, String token) {
+    }
+
+    /**
+     * Result of sending a single message: either the generated {@code MSG_ID} or the error reported by Firebase.
+     * Both are {@code null} if messaging is disabled.
+     */
+    public record SendResult(String msgId, FirebaseMessagingException error) {
+    }
 }
@@ -30,6 +30,9 @@ import java.util.Scanner;
 public class ImportExportService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ImportExportService.class);
+
+    public static final int MAX_EXPORT_SLICES = 16;
+
     private final ParticipantService participantService;
     private final StudyService studyService;
     private final StudyStateService studyStateService;
@@ -133,20 +136,18 @@ public class ImportExportService {
         return newStudy;
     }
 
-    public void exportStudyData(ServletOutputStream outputStream, Long studyId) {
+    public void exportStudyData(ServletOutputStream outputStream, Long studyId, ExportFormat format, boolean gzip, int slices) {
         if(studyService.existsStudy(studyId).orElse(false)) {
-            exportStudyDataAsync(outputStream, studyId);
+            exportStudyDataAsync(outputStream, studyId, format, gzip, slices);
         } else {
             throw NotFoundException.Study(studyId);
         }
     }
 
     @Async
-    public void exportStudyDataAsync(ServletOutputStream outputStream, Long studyId) {
-        try(outputStream) {
-            outputStream.write("[".getBytes(StandardCharsets.UTF_8));
-            elasticService.exportData(studyId, outputStream);
-            outputStream.write("]".getBytes(StandardCharsets.UTF_8));
+    public void exportStudyDataAsync(ServletOutputStream outputStream, Long studyId, ExportFormat format, boolean gzip, int slices) {
+        try(DataExportWriter writer = DataExportWriter.create(format, outputStream, gzip)) {
+            elasticService.exportData(studyId, slices, writer);
         } catch (IOException e) {
             LOGGER.error("Cannot export study data for {}", studyId, e);
         }
@@ -20,7 +20,7 @@ import io.redlink.more.studymanager.model.Intervention;
 import io.redlink.more.studymanager.model.Study;
 import io.redlink.more.studymanager.model.Trigger;
 import io.redlink.more.studymanager.repository.InterventionRepository;
-import io.redlink.more.studymanager.repository.StudyRepository;
+import io.redlink.more.studymanager.scheduling.ExecutionPlanService;
 import io.redlink.more.studymanager.sdk.MoreSDK;
 import io.redlink.more.studymanager.utils.LoggingUtils;
 
@@ -29,8 +29,6 @@ import java.text.ParseException;
 import org.quartz.CronExpression;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.context.event.ContextRefreshedEvent;
-import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -43,24 +41,25 @@ public class InterventionService {
 
     private final StudyStateService studyStateService;
     private final InterventionRepository repository;
-    private final StudyRepository studyRepository;
     private final Map<String, ActionFactory> actionFactories;
     private final Map<String, TriggerFactory> triggerFactories;
+    private final ExecutionPlanService executionPlanService;
 
     private final MoreSDK sdk;
     private static final Logger LOGGER = LoggerFactory.getLogger(InterventionService.class);
 
 
     public InterventionService(StudyStateService studyStateService,
-                               InterventionRepository repository, StudyRepository studyRepository,
+                               InterventionRepository repository,
                                MoreSDK sdk,
                                Map<String, TriggerFactory> triggerFactories,
-                               Map<String, ActionFactory> actionFactories) {
+                               Map<String, ActionFactory> actionFactories,
+                               ExecutionPlanService executionPlanService) {
         this.studyStateService = studyStateService;
         this.repository = repository;
-        this.studyRepository = studyRepository;
         this.actionFactories = actionFactories;
         this.triggerFactories = triggerFactories;
+        this.executionPlanService = executionPlanService;
         this.sdk = sdk;
     }
 
@@ -80,16 +79,21 @@ public class InterventionService {
     public void deleteIntervention(Long studyId, Integer interventionId) {
         studyStateService.assertStudyNotInState(studyId, Study.Status.CLOSED);
         repository.deleteByIds(studyId, interventionId);
+        executionPlanService.invalidate(studyId, interventionId);
     }
 
     public Intervention updateIntervention(Intervention intervention) {
         studyStateService.assertStudyNotInState(intervention.getStudyId(), Study.Status.CLOSED);
-        return repository.updateIntervention(intervention);
+        final Intervention updated = repository.updateIntervention(intervention);
+        executionPlanService.invalidate(intervention.getStudyId(), intervention.getInterventionId());
+        return updated;
     }
 
     public Action createAction(Long studyId, Integer interventionId, Action action) {
         studyStateService.assertStudyNotInState(studyId, Study.Status.CLOSED);
-        return repository.createAction(studyId, interventionId, validateAction(action));
+        final Action created = repository.createAction(studyId, interventionId, validateAction(action));
+        executionPlanService.invalidate(studyId, interventionId);
+        return created;
     }
 
     public Action getActionByIds(Long studyId, Integer interventionId, Integer actionId) {
@@ -103,33 +107,27 @@ public class InterventionService {
     public void deleteAction(Long studyId, Integer interventionId, Integer actionId) {
         studyStateService.assertStudyNotInState(studyId, Study.Status.CLOSED);
         repository.deleteActionByIds(studyId, interventionId, actionId);
+        executionPlanService.invalidate(studyId, interventionId);
     }
 
     public Action updateAction(Long studyId, Integer interventionId, Integer actionId, Action action) {
         studyStateService.assertStudyNotInState(studyId, Study.Status.CLOSED);
-        return repository.updateAction(studyId, interventionId, actionId, validateAction(action));
+        final Action updated = repository.updateAction(studyId, interventionId, actionId, validateAction(action));
+        executionPlanService.invalidate(studyId, interventionId);
+        return updated;
     }
 
     public Trigger updateTrigger(Long studyId, Integer interventionId, Trigger trigger) {
         studyStateService.assertStudyNotInState(studyId, Study.Status.CLOSED);
-        return repository.updateTrigger(studyId, interventionId, validateTrigger(trigger));
+        final Trigger updated = repository.updateTrigger(studyId, interventionId, validateTrigger(trigger));
+        executionPlanService.invalidate(studyId, interventionId);
+        return updated;
     }
 
     public Trigger getTriggerByIds(Long studyId, Integer interventionId) {
         return repository.getTriggerByIds(studyId, interventionId);
     }
 
-    @EventListener(ContextRefreshedEvent.class)
-    public void onStartUp() {
-        studyRepository.listStudiesByStatus(Study.Status.ACTIVE).forEach(study -> {
-            try (var ctx = LoggingUtils.createContext(study)) {
-                activateInterventionsFor(study);
-            } catch (RuntimeException e) {
-                LOGGER.warn("Failed to activate interventions for study_{}: {}", study.getStudyId(), e.getMessage(), e);
-            }
-        });
-    }
-
     public void alignInterventionsWithStudyState(Study study) {
         if (study.getStudyState() == Study.Status.ACTIVE) {
             activateInterventionsFor(study);
@@ -138,15 +136,24 @@ public class InterventionService {
         }
     }
 
-    public void activateInterventionsFor(Study study) {
-        listTriggersFor(study).forEach((Component component) -> {
+    /**
+     * Activate the triggers of all interventions of the study. A trigger that fails to activate
+     * does not prevent the activation of the others.
+     *
+     * @return the number of triggers that could not be activated
+     */
+    public int activateInterventionsFor(Study study) {
+        int failed = 0;
+        for (Component component : listTriggersFor(study)) {
             try(var ctx = LoggingUtils.createContext(study)) {
                 component.activate();
                 LOGGER.info("Component {} activated", component);
             } catch (RuntimeException e) {
                 LOGGER.error("Cannot activate {} study", component, e);
+                failed++;
             }
-        });
+        }
+        return failed;
     }
 
     public void deactivateInterventionsFor(Study study) {
@@ -15,7 +15,9 @@ import io.redlink.more.studymanager.repository.ParticipantRepository;
 
 import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import org.springframework.stereotype.Service;
 
@@ -45,6 +47,14 @@ public class ParticipantService {
         return participantRepository.listParticipants(studyId);
     }
 
+    public List<Integer> listParticipantIds(long studyId, Integer studyGroupId, Set<Participant.Status> status) {
+        return participantRepository.listParticipantIds(studyId, studyGroupId, status);
+    }
+
+    public Map<Integer, Integer> listParticipantGroups(long studyId, Set<Participant.Status> status) {
+        return participantRepository.listParticipantGroups(studyId, status);
+    }
+
     public List<Participant> listParticipantsForClosing() {
         return participantRepository.listParticipantsForClosing();
     }
@@ -8,16 +8,21 @@
  */
 package io.redlink.more.studymanager.service;
 
-import com.google.firebase.messaging.FirebaseMessagingException;
 import com.google.firebase.messaging.MessagingErrorCode;
 import io.redlink.more.studymanager.model.Notification;
+import io.redlink.more.studymanager.model.PushNotification;
 import io.redlink.more.studymanager.model.PushNotificationsToken;
 import io.redlink.more.studymanager.repository.NotificationRepository;
 import io.redlink.more.studymanager.repository.PushNotificationTokenRepository;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
-import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -37,53 +42,88 @@ public class PushNotificationService {
         this.firebaseService = firebaseService;
     }
 
-    public boolean sendPushNotification(long studyID, int participantId, String title, String message, Map<String, String> data) {
-        Optional<PushNotificationsToken> tkn = this.pushNotificationsRepository.getTokenById(studyID, participantId);
+    /**
+     * Send push-notifications to several participants of a study using the Firebase batch-endpoint.
+     * Tokens are resolved with a single query, sent notifications are stored in one batch and
+     * tokens reported as unregistered are removed.
+     *
+     * @return the ids of the participants that were notified
+     */
+    public Set<Integer> sendPushNotifications(long studyID, Collection<PushNotification> notifications) {
+        if (notifications.isEmpty()) {
+            return Set.of();
+        }
+
+        final Map<Integer, PushNotificationsToken> tokens = pushNotificationsRepository.getTokensByIds(studyID,
+                notifications.stream().map(PushNotification::participantId).collect(Collectors.toSet()));
 
-        if (tkn.isEmpty()) {
-            return false;
+        final List<PushNotification> fcmNotifications = new ArrayList<>(notifications.size());
+        final List<FirebaseMessagingService.SendRequest> requests = new ArrayList<>(notifications.size());
+        for (PushNotification notification : notifications) {
+            final PushNotificationsToken token = tokens.get(notification.participantId());
+            if (token == null) {
+                continue;
+            }
+            if ("FCM".equals(token.service())) {
+                fcmNotifications.add(notification);
+                requests.add(new FirebaseMessagingService.SendRequest(
+                        notification.title(), notification.message(), notification.data(), token.token()));
+            } else {
+                LOG.warn("Unknown Notification-Service-Type: {} - cannot send notification (sid:{} pid:{})",
+                        token.service(), studyID, notification.participantId());
+            }
         }
 
-        final PushNotificationsToken token = tkn.get();
-        final String serviceType = token.service();
-        if ("FCM".equals(serviceType)) {
-            try {
-                String msgId = this.firebaseService.sendNotification(title, message, data, token.token());
-                if(msgId != null) {
-                    LOG.info("Store Text Message (sid:{} pid:{}, mid:{})", studyID, participantId, msgId);
-                    //TODO kind of workaround, data handling should be cleaned up
-                    Map<String,String> dataToStore = new HashMap<>();
-                    dataToStore.put("title", title);
-                    dataToStore.put("body", message);
-                    if(data != null && data.containsKey("deepLink")) {
-                        dataToStore.put("deepLink", data.get("deepLink"));
-                    }
+        final List<FirebaseMessagingService.SendResult> results = firebaseService.sendNotifications(requests);
 
-                    this.notificationRepository.insert(
-                            new Notification()
-                                    .setStudyId(studyID)
-                                    .setParticipantId(participantId)
-                                    .setMsgId(msgId)
-                                    .setType(Notification.Type.TEXT)
-                                    .setData(dataToStore)
-                    );
-                }
-                return true;
-            } catch (FirebaseMessagingException e) {
-                if (e.getMessagingErrorCode() == MessagingErrorCode.UNREGISTERED) {
+        final Set<Integer> notified = new HashSet<>();
+        final Set<Integer> unregistered = new HashSet<>();
+        final List<Notification> toStore = new ArrayList<>();
+        for (int i = 0; i < results.size(); i++) {
+            final PushNotification notification = fcmNotifications.get(i);
+            final int participantId = notification.participantId();
+            final FirebaseMessagingService.SendResult result = results.get(i);
+            if (result.error() != null) {
+                if (result.error().getMessagingErrorCode() == MessagingErrorCode.UNREGISTERED) {
                     LOG.debug("Outdated FCM-Notification token (sid:{} pid:{}), trying to clean-up...", studyID, participantId);
-                    if (pushNotificationsRepository.deleteToken(studyID, participantId)) {
-                        LOG.info("Cleared outdated FCM-Notification token (sid:{} pid:{})", studyID, participantId);
-                    }
+                    unregistered.add(participantId);
                 } else {
-                    LOG.warn("Could not send Notification (sid:{} pid:{}): {}", studyID, participantId, e.getMessage(), e);
+                    LOG.warn("Could not send Notification (sid:{} pid:{}): {}", studyID, participantId, result.error().getMessage(), result.error());
                 }
-                return false;
+                continue;
+            }
+
+            notified.add(participantId);
+            if (result.msgId() != null) {
+                LOG.info("Store Text Message (sid:{} pid:{}, mid:{})", studyID, participantId, result.msgId());
+                toStore.add(new Notification()
+                        .setStudyId(studyID)
+                        .setParticipantId(participantId)
+                        .setMsgId(result.msgId())
+                        .setType(Notification.Type.TEXT)
+                        .setData(getDataToStore(notification))
+                );
             }
-        } else {
-            LOG.warn("Unknown Notification-Service-Type: {} - cannot send notification (sid:{} pid:{})",
-                    serviceType, studyID, participantId);
-            return false;
         }
+
+        if (!unregistered.isEmpty()) {
+            final int cleared = pushNotificationsRepository.deleteTokens(studyID, unregistered);
+            LOG.info("Cleared {} outdated FCM-Notification tokens (sid:{} pids:{})", cleared, studyID, unregistered);
+        }
+        if (!toStore.isEmpty()) {
+            notificationRepository.batchInsert(toStore);
+        }
+        return notified;
+    }
+
+    //TODO kind of workaround, data handling should be cleaned up
+    private static Map<String, String> getDataToStore(PushNotification notification) {
+        Map<String,String> dataToStore = new HashMap<>();
+        dataToStore.put("title", notification.title());
+        dataToStore.put("body", notification.message());
+        if(notification.data() != null && notification.data().containsKey("deepLink")) {
+            dataToStore.put("deepLink", notification.data().get("deepLink"));
+        }
+        return dataToStore;
     }
 }
@@ -0,0 +1,124 @@
+/*
+ * Copyright LBI-DHP and/or licensed to LBI-DHP under one or more
+ * contributor license agreements (LBI-DHP: Ludwig Boltzmann Institute
+ * for Digital Health and Prevention -- A research institute of the
+ * Ludwig Boltzmann Gesellschaft, Österreichische Vereinigung zur
+ * Förderung der wissenschaftlichen Forschung).
+ * Licensed under the Elastic License 2.0.
+ */
+package io.redlink.more.studymanager.service;
+
+import io.redlink.more.studymanager.model.Study;
+import io.redlink.more.studymanager.properties.StartupActivationProperties;
+import io.redlink.more.studymanager.repository.StudyRepository;
+import io.redlink.more.studymanager.utils.LoggingUtils;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Re-activates the interventions of all active studies on startup.
+ * <p>
+ * Studies are activated in parallel on a bounded pool, without blocking the startup. Until all studies
+ * are processed, this indicator reports {@code OUT_OF_SERVICE}, so (as part of the readiness-group)
+ * an instance only receives traffic once the scheduling is restored.
+ */
+@Service
+@EnableConfigurationProperties(StartupActivationProperties.class)
+public class StartupActivation implements HealthIndicator {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StartupActivation.class);
+
+    private final StudyRepository studyRepository;
+    private final InterventionService interventionService;
+    private final ExecutorService executor;
+
+    private final AtomicBoolean started = new AtomicBoolean();
+    private final AtomicInteger activated = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private volatile int total = -1;
+    private volatile boolean completed = false;
+
+    public StartupActivation(StudyRepository studyRepository, InterventionService interventionService,
+                             StartupActivationProperties properties) {
+        this.studyRepository = studyRepository;
+        this.interventionService = interventionService;
+        final AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(properties.threads(),
+                r -> new Thread(r, "startup-activation-" + threadCount.incrementAndGet()));
+    }
+
+    @EventListener(ContextRefreshedEvent.class)
+    public void onStartUp() {
+        activateAll();
+    }
+
+    CompletableFuture<Void> activateAll() {
+        if (!started.compareAndSet(false, true)) {
+            return CompletableFuture.completedFuture(null);
+        }
+        final long start = System.currentTimeMillis();
+        return CompletableFuture.supplyAsync(() -> studyRepository.listStudiesByStatus(Study.Status.ACTIVE), executor)
+                .thenCompose(studies -> {
+                    total = studies.size();
+                    LOGGER.info("Activating interventions of {} active studies", total);
+                    return CompletableFuture.allOf(studies.stream()
+                            .map(study -> CompletableFuture.runAsync(() -> activate(study), executor))
+                            .toArray(CompletableFuture[]::new));
+                })
+                .whenComplete((v, e) -> {
+                    // also if the studies can not be listed, the instance must not stay out of service
+                    completed = true;
+                    executor.shutdown();
+                    if (e != null) {
+                        LOGGER.error("Failed to activate interventions on startup: {}", e.getMessage(), e);
+                    }
+                    LOGGER.info("Activated interventions of {} studies in {}ms ({} failed)",
+                            activated.get(), System.currentTimeMillis() - start, failed.get());
+                });
+    }
+
+    private void activate(Study study) {
+        try (var ctx = LoggingUtils.createContext(study)) {
+            final int failedTriggers = interventionService.activateInterventionsFor(study);
+            if (failedTriggers > 0) {
+                LOGGER.warn("Failed to activate {} interventions for study_{} ({}/{})",
+                        failedTriggers, study.getStudyId(), activated.get() + failed.incrementAndGet(), total);
+            } else {
+                LOGGER.info("Activated interventions for study_{} ({}/{})",
+                        study.getStudyId(), activated.incrementAndGet() + failed.get(), total);
+            }
+        } catch (RuntimeException e) {
+            LOGGER.warn("Failed to activate interventions for study_{} ({}/{}): {}",
+                    study.getStudyId(), activated.get() + failed.incrementAndGet(), total, e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public Health health() {
+        final Health.Builder builder = completed ? Health.up() : Health.outOfService();
+        if (total >= 0) {
+            builder.withDetail("studies", total)
+                    .withDetail("activated", activated.get())
+                    .withDetail("failed", failed.get());
+        }
+        return builder.build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
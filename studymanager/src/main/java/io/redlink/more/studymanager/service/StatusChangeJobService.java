@@ -0,0 +1,85 @@
+/*
+ * Copyright LBI-DHP and/or licensed to LBI-DHP under one or more
+ * contributor license agreements (LBI-DHP: Ludwig Boltzmann Institute
+ * for Digital Health and Prevention -- A research institute of the
+ * Ludwig Boltzmann Gesellschaft, Österreichische Vereinigung zur
+ * Förderung der wissenschaftlichen Forschung).
+ * Licensed under the Elastic License 2.0.
+ */
+package io.redlink.more.studymanager.service;
+
+import io.redlink.more.studymanager.exception.BadStudyStateException;
+import io.redlink.more.studymanager.model.StatusChangeJob;
+import io.redlink.more.studymanager.model.Study;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Runs the background part of study status changes and keeps track of their progress.
+ * Finished jobs can be polled for {@link #RETENTION} before they are discarded.
+ */
+@Service
+public class StatusChangeJobService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(StatusChangeJobService.class);
+
+    static final Duration RETENTION = Duration.ofHours(1);
+
+    private final Map<String, StatusChangeJob> jobs = new ConcurrentHashMap<>();
+
+    /**
+     * Register a new job for the status change.
+     *
+     * @throws BadStudyStateException if there is still a status change running for this study
+     */
+    public synchronized StatusChangeJob create(long studyId, Study.Status oldStatus, Study.Status newStatus) {
+        if (jobs.values().stream().anyMatch(j -> j.getStudyId() == studyId && j.isRunning())) {
+            throw new BadStudyStateException(String.format("Status change of study %s still in progress", studyId));
+        }
+        final StatusChangeJob job = new StatusChangeJob(studyId, oldStatus, newStatus);
+        jobs.put(job.getJobId(), job);
+        return job;
+    }
+
+    public Optional<StatusChangeJob> getJob(long studyId, String jobId) {
+        return Optional.ofNullable(jobs.get(jobId))
+                .filter(j -> j.getStudyId() == studyId);
+    }
+
+    @Async
+    public void run(StatusChangeJob job, Consumer<StatusChangeJob> work) {
+        try {
+            work.accept(job);
+            if (job.isRunning()) {
+                job.done();
+            }
+            if (job.getState() == StatusChangeJob.State.FAILED) {
+                LOG.warn("Status change of study_{} ({} -> {}) failed: {}",
+                        job.getStudyId(), job.getOldStatus(), job.getNewStatus(), job.getErrors());
+            } else {
+                LOG.info("Status change of study_{} ({} -> {}) finished: {} of {} participants notified",
+                        job.getStudyId(), job.getOldStatus(), job.getNewStatus(), job.getNotified(), job.getParticipants());
+            }
+        } catch (RuntimeException e) {
+            LOG.warn("Status change of study_{} ({} -> {}) failed: {}",
+                    job.getStudyId(), job.getOldStatus(), job.getNewStatus(), e.getMessage(), e);
+            job.failed(e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelay = 1000 * 60 * 5, initialDelay = 1000 * 60)
+    public void removeFinishedJobs() {
+        final Instant threshold = Instant.now().minus(RETENTION);
+        jobs.values().removeIf(j -> j.getFinished() != null && j.getFinished().isBefore(threshold));
+    }
+}
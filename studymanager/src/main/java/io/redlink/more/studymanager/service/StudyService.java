@@ -8,6 +8,7 @@
  */
 package io.redlink.more.studymanager.service;
 
+import com.google.common.collect.Lists;
 import io.redlink.more.studymanager.exception.BadRequestException;
 import io.redlink.more.studymanager.exception.DataConstraintException;
 import io.redlink.more.studymanager.exception.NotFoundException;
@@ -22,6 +23,7 @@ import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
+import java.util.stream.Collectors;
 
 @Service
 public class StudyService {
@@ -39,10 +41,12 @@ public class StudyService {
 
     private final PushNotificationService pushNotificationService;
 
+    private final StatusChangeJobService statusChangeJobService;
 
     public StudyService(StudyRepository studyRepository, StudyAclRepository aclRepository, UserRepository userRepo,
                         StudyStateService studyStateService, InterventionService interventionService, ObservationService observationService,
-                        ParticipantService participantService, IntegrationService integrationService, ElasticService elasticService, PushNotificationService pushNotificationService) {
+                        ParticipantService participantService, IntegrationService integrationService, ElasticService elasticService, PushNotificationService pushNotificationService,
+                        StatusChangeJobService statusChangeJobService) {
         this.studyRepository = studyRepository;
         this.aclRepository = aclRepository;
         this.userRepo = userRepo;
@@ -53,6 +57,7 @@ public class StudyService {
         this.integrationService = integrationService;
         this.elasticService = elasticService;
         this.pushNotificationService = pushNotificationService;
+        this.statusChangeJobService = statusChangeJobService;
     }
 
     public Study createStudy(Study study, User currentUser) {
@@ -91,7 +96,12 @@ public class StudyService {
         elasticService.deleteIndex(studyId);
     }
 
-    public void setStatus(Long studyId, Study.Status status, User user) {
+    /**
+     * Change the status of a study. The new status is stored immediately; aligning study-components
+     * and participants and notifying the participants is done by a background job.
+     * If that fails, the study is rolled back to the previous status.
+     */
+    public StatusChangeJob setStatus(Long studyId, Study.Status status, User user) {
         Study study = getStudy(studyId, user)
                 .orElseThrow(() -> NotFoundException.Study(studyId));
         if (status.equals(Study.Status.DRAFT)) {
@@ -105,31 +115,66 @@ public class StudyService {
         }
 
         Study.Status oldState = study.getStudyState();
-
-        studyRepository.setStateById(studyId, status);
-        studyRepository.getById(studyId).ifPresent(s -> {
-            try {
-                alignWithStudyState(s);
-                participantService.listParticipants(studyId).forEach(participant -> {
-                    pushNotificationService.sendPushNotification(
-                            studyId,
-                            participant.getParticipantId(),
-                            "Your Study has a new update",
-                            "Your study was updated. For more information, please launch the app!",
-                            Map.of("key", "STUDY_STATE_CHANGED",
-                                    "oldState", oldState.getValue(),
-                                    "newState", s.getStudyState().getValue())
-                    );
-                });
-                participantService.alignParticipantsWithStudyState(s);
-            } catch (Exception e) {
-                log.warn("Could not set new state for study id {}; old state: {}; new state: {}", studyId, oldState.getValue(), s.getStudyState().getValue());
-                //ROLLBACK
+        final StatusChangeJob job = statusChangeJobService.create(studyId, oldState, status);
+
+        // the running job blocks further status changes of the study, so it must not stay running if it can not be started
+        boolean stateChanged = false;
+        try {
+            studyRepository.setStateById(studyId, status);
+            stateChanged = true;
+            studyRepository.getById(studyId).ifPresentOrElse(
+                    s -> statusChangeJobService.run(job, j -> applyStatus(s, oldState, j)),
+                    () -> job.failed("Study cannot be found")
+            );
+        } catch (RuntimeException e) {
+            job.failed("Status change could not be started: " + e.getMessage());
+            if (stateChanged) {
                 studyRepository.setStateById(studyId, oldState);
-                studyRepository.getById(studyId).ifPresent(this::alignWithStudyState);
-                throw new BadRequestException("Study cannot be initialized");
             }
-        });
+            throw e;
+        }
+        return job;
+    }
+
+    public Optional<StatusChangeJob> getStatusChangeJob(Long studyId, String jobId) {
+        return statusChangeJobService.getJob(studyId, jobId);
+    }
+
+    private void applyStatus(Study s, Study.Status oldState, StatusChangeJob job) {
+        final long studyId = s.getStudyId();
+        try {
+            alignWithStudyState(s);
+            final List<Participant> participants = participantService.listParticipants(studyId);
+            job.setParticipants(participants.size());
+            final Map<String, String> data = Map.of("key", "STUDY_STATE_CHANGED",
+                    "oldState", oldState.getValue(),
+                    "newState", s.getStudyState().getValue());
+            Lists.partition(participants, FirebaseMessagingService.MAX_BATCH_SIZE).forEach(chunk -> {
+                final Set<Integer> notified = pushNotificationService.sendPushNotifications(studyId,
+                        chunk.stream()
+                                .map(participant -> new PushNotification(
+                                        participant.getParticipantId(),
+                                        "Your Study has a new update",
+                                        "Your study was updated. For more information, please launch the app!",
+                                        data))
+                                .toList()
+                );
+                job.addNotified(notified.size(), chunk.size() - notified.size());
+                if (notified.size() < chunk.size()) {
+                    job.addError("Could not notify participants " + chunk.stream()
+                            .map(Participant::getParticipantId)
+                            .filter(id -> !notified.contains(id))
+                            .toList());
+                }
+            });
+            participantService.alignParticipantsWithStudyState(s);
+        } catch (Exception e) {
+            log.warn("Could not set new state for study id {}; old state: {}; new state: {}", studyId, oldState.getValue(), s.getStudyState().getValue());
+            //ROLLBACK
+            studyRepository.setStateById(studyId, oldState);
+            studyRepository.getById(studyId).ifPresent(this::alignWithStudyState);
+            job.failed("Study cannot be initialized: " + e.getMessage());
+        }
     }
 
     // every minute
@@ -137,23 +182,29 @@ public class StudyService {
     public void closeParticipationsForStudiesWithDurations() {
         List<Participant> participantsToClose = participantService.listParticipantsForClosing();
         log.debug("Selected {} paticipants to close", participantsToClose.size());
-        participantsToClose.forEach(participant -> {
-            pushNotificationService.sendPushNotification(
-                    participant.getStudyId(),
-                    participant.getParticipantId(),
-                    "Your Study has been closed",
-                    "Your study was updated. For more information, please launch the app!",
-                    Map.of("key", "STUDY_STATE_CHANGED",
-                            "oldState", Study.Status.ACTIVE.getValue(),
-                            "newState", Study.Status.CLOSED.getValue())
-            );
-            participantService.setStatus(
-                    participant.getStudyId(), participant.getParticipantId(), Participant.Status.LOCKED
-            );
-        });
+        final Map<String, String> data = Map.of("key", "STUDY_STATE_CHANGED",
+                "oldState", Study.Status.ACTIVE.getValue(),
+                "newState", Study.Status.CLOSED.getValue());
+        participantsToClose.stream()
+                .collect(Collectors.groupingBy(Participant::getStudyId))
+                .forEach((studyId, participants) -> pushNotificationService.sendPushNotifications(studyId,
+                        participants.stream()
+                                .map(participant -> new PushNotification(
+                                        participant.getParticipantId(),
+                                        "Your Study has been closed",
+                                        "Your study was updated. For more information, please launch the app!",
+                                        data))
+                                .toList()
+                ));
+        participantsToClose.forEach(participant -> participantService.setStatus(
+                participant.getStudyId(), participant.getParticipantId(), Participant.Status.LOCKED
+        ));
     }
 
     private void alignWithStudyState(Study s) {
+        if (s.getStudyState() == Study.Status.ACTIVE) {
+            elasticService.ensureStudyIndex(s.getStudyId());
+        }
         interventionService.alignInterventionsWithStudyState(s);
         observationService.alignObservationsWithStudyState(s);
         integrationService.alignIntegrationsWithStudyState(s);
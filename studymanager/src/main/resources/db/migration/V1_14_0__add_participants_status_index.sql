@@ -0,0 +1,4 @@
+CREATE INDEX participants_study_status_group ON participants(study_id, status, study_group_id) INCLUDE (participant_id);
+
+-- covered by the primary key and the index above
+DROP INDEX participants_study_id;
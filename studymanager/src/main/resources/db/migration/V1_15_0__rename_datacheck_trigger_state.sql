@@ -0,0 +1,7 @@
+-- participant-state of the datacheck-trigger is now stored with a common prefix to allow bulk reads
+UPDATE nvpairs n
+SET name = 'active_' || substring(n.name FROM '^([0-9]+)_active$')
+FROM triggers t
+WHERE t.type = 'scheduled-datacheck-trigger'
+  AND n.issuer ~ ('^' || t.study_id || '-([0-9]+|null)-' || t.intervention_id || '-trigger$')
+  AND n.name ~ '^[0-9]+_active$';
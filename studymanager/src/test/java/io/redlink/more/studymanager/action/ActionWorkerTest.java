@@ -0,0 +1,91 @@
+/*
+ * Copyright LBI-DHP and/or licensed to LBI-DHP under one or more
+ * contributor license agreements (LBI-DHP: Ludwig Boltzmann Institute
+ * for Digital Health and Prevention -- A research institute of the
+ * Ludwig Boltzmann Gesellschaft, Österreichische Vereinigung zur
+ * Förderung der wissenschaftlichen Forschung).
+ * Licensed under the Elastic License 2.0.
+ */
+package io.redlink.more.studymanager.action;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.redlink.more.studymanager.core.component.Action;
+import io.redlink.more.studymanager.core.io.ActionParameter;
+import io.redlink.more.studymanager.core.properties.ActionProperties;
+import io.redlink.more.studymanager.properties.ActionExecutionProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ActionWorkerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final ActionWorker worker = new ActionWorker(new ActionExecutionProperties(4, 100, 2), meterRegistry);
+
+    @AfterEach
+    void tearDown() {
+        worker.shutdown();
+    }
+
+    @Test
+    void testConcurrencyLimitPerStudy() {
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        final Action<ActionProperties> action = new Action<>(null, new ActionProperties()) {
+            @Override
+            public void execute(ActionParameter parameter) {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    TimeUnit.MILLISECONDS.sleep(20);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    running.decrementAndGet();
+                }
+            }
+        };
+
+        final List<CompletableFuture<Void>> executions = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            executions.add(worker.execute(1L, "test-action", action, new ActionParameter(1L, i)));
+        }
+        CompletableFuture.allOf(executions.toArray(CompletableFuture[]::new)).join();
+
+        assertThat(maxRunning.get()).isBetween(1, 2);
+        assertThat(meterRegistry.get("more.actions.execution")
+                .tag("type", "test-action")
+                .tag("outcome", "success")
+                .timer().count()).isEqualTo(10);
+    }
+
+    @Test
+    void testFailingAction() {
+        final Action<ActionProperties> action = new Action<>(null, new ActionProperties()) {
+            @Override
+            public void execute(ActionParameter parameter) {
+                throw new IllegalStateException("failed");
+            }
+        };
+
+        final CompletableFuture<Void> execution = worker.execute(1L, "test-action", action, new ActionParameter(1L, 1));
+
+        assertThat(execution).failsWithin(1, TimeUnit.SECONDS);
+        assertThat(meterRegistry.get("more.actions.execution")
+                .tag("outcome", "error")
+                .timer().count()).isEqualTo(1);
+        // the permit of the failed action must be released
+        assertThat(worker.execute(1L, "test-action", new Action<>(null, new ActionProperties()) {
+            @Override
+            public void execute(ActionParameter parameter) {
+            }
+        }, new ActionParameter(1L, 2))).succeedsWithin(1, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright LBI-DHP and/or licensed to LBI-DHP under one or more
+ * contributor license agreements (LBI-DHP: Ludwig Boltzmann Institute
+ * for Digital Health and Prevention -- A research institute of the
+ * Ludwig Boltzmann Gesellschaft, Österreichische Vereinigung zur
+ * Förderung der wissenschaftlichen Forschung).
+ * Licensed under the Elastic License 2.0.
+ */
+package io.redlink.more.studymanager.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.util.SerializationUtils;
+
+import java.io.Serializable;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CompactNameValuePairCodecTest {
+
+    private final NameValuePairCodec codec = new CompactNameValuePairCodec();
+
+    record SampleRecord(String name, int count) implements Serializable {
+    }
+
+    @Test
+    void testRoundTrip() {
+        assertRoundTrip(true, Boolean.class);
+        assertRoundTrip(false, Boolean.class);
+        assertRoundTrip(42, Integer.class);
+        assertRoundTrip(-42L, Long.class);
+        assertRoundTrip(4.2, Double.class);
+        assertRoundTrip("schedule-ÄÖÜ-1", String.class);
+        assertRoundTrip("", String.class);
+        assertRoundTrip(new SampleRecord("test", 3), SampleRecord.class);
+        assertThat(codec.decode(codec.encode(new SampleObject("v1")), SampleObject.class).getValue())
+                .isEqualTo("v1");
+    }
+
+    @Test
+    void testCompactEncoding() {
+        assertThat(codec.encode(true)).hasSize(2);
+        assertThat(codec.encode("abc")).hasSize(4);
+        assertThat(codec.encode(1L)).hasSizeLessThan(SerializationUtils.serialize(1L).length);
+    }
+
+    @Test
+    void testReadLegacyValues() {
+        assertThat(codec.decode(SerializationUtils.serialize(true), Boolean.class)).isTrue();
+        assertThat(codec.decode(SerializationUtils.serialize("v1"), String.class)).isEqualTo("v1");
+        assertThat(codec.decode(SerializationUtils.serialize(new SampleObject("v1")), SampleObject.class).getValue())
+                .isEqualTo("v1");
+    }
+
+    @Test
+    void testTypeMismatch() {
+        assertThrows(ClassCastException.class, () -> codec.decode(codec.encode("v1"), Integer.class));
+        assertThrows(ClassCastException.class, () -> codec.decode(codec.encode(true), String.class));
+        assertThrows(ClassCastException.class, () -> codec.decode(codec.encode(new SampleRecord("test", 3)), SampleObject.class));
+    }
+
+    private <T extends Serializable> void assertRoundTrip(T value, Class<T> tClass) {
+        assertThat(codec.decode(codec.encode(value), tClass)).isEqualTo(value);
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright LBI-DHP and/or licensed to LBI-DHP under one or more
+ * contributor license agreements (LBI-DHP: Ludwig Boltzmann Institute
+ * for Digital Health and Prevention -- A research institute of the
+ * Ludwig Boltzmann Gesellschaft, Österreichische Vereinigung zur
+ * Förderung der wissenschaftlichen Forschung).
+ * Licensed under the Elastic License 2.0.
+ */
+package io.redlink.more.studymanager.repository;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.util.SerializationUtils;
+
+import java.io.Serializable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link CompactNameValuePairCodec} with the Java serialization used before, for the values typically
+ * stored by components. Not part of the test-suite, run {@link #main(String[])} on the test-classpath;
+ * the encoded size of the decoded value is reported as secondary result {@code encodedBytes}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NameValuePairCodecBenchmark {
+
+    public record ScheduleState(String scheduleId, long lastRun) implements Serializable {
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class EncodedSize {
+        public long encodedBytes;
+    }
+
+    @Param({"boolean", "string", "record"})
+    String type;
+
+    private final NameValuePairCodec codec = new CompactNameValuePairCodec();
+
+    private Class<? extends Serializable> valueClass;
+    private byte[] compact;
+    private byte[] legacy;
+
+    @Setup
+    public void setup() {
+        final Serializable value = sample(type);
+        valueClass = value.getClass();
+        compact = codec.encode(value);
+        legacy = SerializationUtils.serialize(value);
+    }
+
+    @Benchmark
+    public Object decodeCompact(EncodedSize size) {
+        size.encodedBytes = compact.length;
+        return codec.decode(compact, valueClass);
+    }
+
+    @Benchmark
+    public Object decodeLegacy(EncodedSize size) {
+        size.encodedBytes = legacy.length;
+        return valueClass.cast(SerializationUtils.deserialize(legacy));
+    }
+
+    private static Serializable sample(String type) {
+        return switch (type) {
+            case "boolean" -> Boolean.TRUE;
+            case "string" -> "7d9b1c62-9b5e-4a1f-8a5e-0c3f2f3b6a41";
+            case "record" -> new ScheduleState("7d9b1c62-9b5e-4a1f-8a5e-0c3f2f3b6a41", 1697616000000L);
+            default -> throw new IllegalArgumentException(type);
+        };
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(NameValuePairCodecBenchmark.class.getSimpleName())
+                .build()
+        ).run();
+    }
+}
@@ -16,6 +16,7 @@ import org.springframework.test.context.ActiveProfiles;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
 import java.io.Serializable;
+import java.util.Map;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -47,6 +48,24 @@ public class NameValuePairRepositoryTest {
         assertFalse(nvpairs.getValue("i1", "n1", String.class).isPresent());
     }
 
+    @Test
+    public void testBulkOperations() {
+        nvpairs.setValues("i1", Map.of("active_1", true, "active_2", false, "active_11", true));
+        nvpairs.setValue("i1", "activeX", true);
+        nvpairs.setValue("i2", "active_3", true);
+
+        assertThat(nvpairs.getValues("i1", "active_", Boolean.class))
+                .isEqualTo(Map.of("active_1", true, "active_2", false, "active_11", true));
+
+        nvpairs.setValues("i1", Map.of("active_2", true));
+        assertThat(nvpairs.getValue("i1", "active_2", Boolean.class).get()).isEqualTo(true);
+
+        nvpairs.removeValues("i1", "active_");
+        assertThat(nvpairs.getValues("i1", "active_", Boolean.class)).isEqualTo(Map.of());
+        assertThat(nvpairs.getValue("i1", "activeX", Boolean.class).isPresent()).isTrue();
+        assertThat(nvpairs.getValue("i2", "active_3", Boolean.class).isPresent()).isTrue();
+    }
+
     @Test
     public void testMoreComplexObject() {
         nvpairs.setValue("i2", "complex", new SampleObject("v1"));
@@ -62,4 +62,30 @@ public class NotificationRepositoryTest {
 
         Assertions.assertEquals(2, result.size());
     }
+
+    @Test
+    public void testBatchInsert() {
+        var s = studyRepository.insert(new Study().setContact(new Contact()));
+        var p1 = participantRepository.insert(new Participant().setStudyId(s.getStudyId()).setRegistrationToken("t1"));
+        var p2 = participantRepository.insert(new Participant().setStudyId(s.getStudyId()).setRegistrationToken("t2"));
+
+        repository.batchInsert(List.of(
+                new Notification()
+                        .setType(Notification.Type.TEXT)
+                        .setStudyId(s.getStudyId())
+                        .setParticipantId(p1.getParticipantId())
+                        .setMsgId("m1")
+                        .setData(Map.of("hello", "world")),
+                new Notification()
+                        .setType(Notification.Type.TEXT)
+                        .setStudyId(s.getStudyId())
+                        .setParticipantId(p2.getParticipantId())
+                        .setMsgId("m2")
+                        .setData(Map.of("hello", "world"))
+        ));
+
+        Assertions.assertEquals(2, repository.listAll().stream()
+                .filter(n -> s.getStudyId().equals(n.getStudyId()))
+                .count());
+    }
 }
@@ -21,6 +21,8 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
+import java.util.Set;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 @SpringBootTest
@@ -142,6 +144,35 @@ class ParticipantRepositoryTest {
         assertThat(participant.getStatus()).isEqualTo(Participant.Status.ACTIVE);
     }
 
+    @Test
+    @DisplayName("Participant ids are filtered by study group and state")
+    void testListParticipantIds() {
+        Long studyId = studyRepository.insert(new Study().setContact(new Contact().setPerson("test").setEmail("test"))).getStudyId();
+        Integer studyGroupId = studyGroupRepository.insert(new StudyGroup()
+                .setStudyId(studyId)).getStudyGroupId();
+
+        Participant p1 = createParticipant(studyId, Participant.Status.ACTIVE);
+        Participant p2 = createParticipant(studyId);
+        Participant p3 = participantRepository.update(
+                createParticipant(studyId, Participant.Status.ACTIVE).setStudyGroupId(studyGroupId));
+
+        assertThat(participantRepository.listParticipantIds(studyId, null, null))
+                .containsExactlyInAnyOrder(p1.getParticipantId(), p2.getParticipantId(), p3.getParticipantId());
+        assertThat(participantRepository.listParticipantIds(studyId, null, Set.of(Participant.Status.ACTIVE)))
+                .containsExactlyInAnyOrder(p1.getParticipantId(), p3.getParticipantId());
+        assertThat(participantRepository.listParticipantIds(studyId, studyGroupId, null))
+                .containsExactly(p3.getParticipantId());
+        assertThat(participantRepository.listParticipantIds(studyId, studyGroupId, Set.of(Participant.Status.NEW)))
+                .isEmpty();
+        assertThat(participantRepository.listParticipantIds(studyId, null, Set.of()))
+                .isEmpty();
+
+        assertThat(participantRepository.listParticipantGroups(studyId, Set.of(Participant.Status.ACTIVE)))
+                .hasSize(2)
+                .containsEntry(p1.getParticipantId(), null)
+                .containsEntry(p3.getParticipantId(), studyGroupId);
+    }
+
     @Test
     @DisplayName("Participants study group must be undefined")
     void testUndefinedStudyGroup() {
@@ -88,6 +88,29 @@ class StudyAclRepositoryTest {
         assertTrue(studyAclRepository.hasAnyRole(study.getStudyId(), user1.id(), StudyRole.STUDY_ADMIN, StudyRole.STUDY_OPERATOR));
     }
 
+    @Test
+    @DisplayName("Cached roles are invalidated when the roles are changed")
+    void testRolesCacheInvalidation() {
+        // the first check caches that user1 has no roles
+        assertFalse(studyAclRepository.hasRole(study.getStudyId(), user1.id(), StudyRole.STUDY_VIEWER));
+
+        studyAclRepository.setRoles(study.getStudyId(), user1.id(), null, StudyRole.STUDY_VIEWER);
+        assertTrue(studyAclRepository.hasRole(study.getStudyId(), user1.id(), StudyRole.STUDY_VIEWER));
+
+        studyAclRepository.setRoles(study.getStudyId(), user1.id(), null, StudyRole.STUDY_OPERATOR);
+        assertFalse(studyAclRepository.hasRole(study.getStudyId(), user1.id(), StudyRole.STUDY_VIEWER));
+        assertTrue(studyAclRepository.hasRole(study.getStudyId(), user1.id(), StudyRole.STUDY_OPERATOR));
+
+        studyAclRepository.clearRoles(study.getStudyId(), user1.id());
+        assertFalse(studyAclRepository.hasAnyRole(study.getStudyId(), user1.id(), StudyRole.values()));
+
+        // a rejected change must not leave the uncommitted state in the cache
+        assertTrue(studyAclRepository.hasRole(study.getStudyId(), admin.id(), StudyRole.STUDY_ADMIN));
+        assertThrows(DataConstraintException.class,
+                () -> studyAclRepository.clearRoles(study.getStudyId(), admin.id()));
+        assertTrue(studyAclRepository.hasRole(study.getStudyId(), admin.id(), StudyRole.STUDY_ADMIN));
+    }
+
     @Test
     void testSetAndGetRoles() {
         var rolesUser1 = EnumSet.of(StudyRole.STUDY_OPERATOR, StudyRole.STUDY_VIEWER);
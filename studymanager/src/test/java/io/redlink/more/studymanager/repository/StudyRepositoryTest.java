@@ -163,6 +163,13 @@ class StudyRepositoryTest {
         assertTrue(studyRepository.hasState(study.getStudyId(), statusSet1));
         assertFalse(studyRepository.hasState(study.getStudyId(), statusSet2));
         assertFalse(studyRepository.hasState(study.getStudyId(), statusSet3));
+
+        studyRepository.setStateById(study.getStudyId(), Study.Status.CLOSED);
+        assertFalse(studyRepository.hasState(study.getStudyId(), statusSet1));
+        assertTrue(studyRepository.hasState(study.getStudyId(), statusSet2));
+
+        studyRepository.deleteById(study.getStudyId());
+        assertFalse(studyRepository.hasState(study.getStudyId(), statusSet2));
     }
 
 
@@ -0,0 +1,92 @@
+/*
+ * Copyright LBI-DHP and/or licensed to LBI-DHP under one or more
+ * contributor license agreements (LBI-DHP: Ludwig Boltzmann Institute
+ * for Digital Health and Prevention -- A research institute of the
+ * Ludwig Boltzmann Gesellschaft, Österreichische Vereinigung zur
+ * Förderung der wissenschaftlichen Forschung).
+ * Licensed under the Elastic License 2.0.
+ */
+package io.redlink.more.studymanager.scheduling;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.redlink.more.studymanager.core.component.Trigger;
+import io.redlink.more.studymanager.core.factory.ActionFactory;
+import io.redlink.more.studymanager.core.factory.TriggerFactory;
+import io.redlink.more.studymanager.core.properties.ActionProperties;
+import io.redlink.more.studymanager.core.properties.TriggerProperties;
+import io.redlink.more.studymanager.model.Action;
+import io.redlink.more.studymanager.repository.InterventionRepository;
+import io.redlink.more.studymanager.sdk.MoreSDK;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ExecutionPlanServiceTest {
+
+    @Mock
+    InterventionRepository repository;
+    @Mock
+    MoreSDK moreSDK;
+    @Mock
+    TriggerFactory triggerFactory;
+    @Mock
+    ActionFactory actionFactory;
+
+    private ExecutionPlanService executionPlanService;
+
+    @BeforeEach
+    void setUp() {
+        executionPlanService = new ExecutionPlanService(repository,
+                Map.of("my-trigger", triggerFactory),
+                Map.of("my-action", actionFactory),
+                moreSDK,
+                new SimpleMeterRegistry());
+    }
+
+    @Test
+    void testPlanIsCachedUntilInvalidated() {
+        when(repository.getTriggerByIds(1L, 2)).thenReturn(new io.redlink.more.studymanager.model.Trigger()
+                .setType("my-trigger")
+                .setProperties(new TriggerProperties()));
+        when(repository.listActions(1L, 2)).thenReturn(List.of(
+                new Action().setActionId(1).setType("my-action").setProperties(new ActionProperties()),
+                new Action().setActionId(2).setType("unknown-action").setProperties(new ActionProperties())
+        ));
+        when(triggerFactory.create(any(), any())).thenReturn(mock(Trigger.class));
+        when(actionFactory.validate(any())).thenAnswer(i -> i.getArgument(0));
+
+        final var plan = executionPlanService.getExecutionPlan(1L, null, 2);
+        assertThat(plan).isPresent();
+        assertThat(plan.get().actions())
+                .singleElement()
+                .satisfies(a -> {
+                    assertThat(a.factory()).isSameAs(actionFactory);
+                    assertThat(a.properties()).isNotNull();
+                });
+        assertThat(executionPlanService.getExecutionPlan(1L, null, 2)).containsSame(plan.get());
+        verify(triggerFactory, times(1)).create(any(), any());
+
+        executionPlanService.invalidate(1L, 2);
+        assertThat(executionPlanService.getExecutionPlan(1L, null, 2)).isPresent();
+        verify(triggerFactory, times(2)).create(any(), any());
+        verify(repository, times(2)).listActions(1L, 2);
+    }
+
+    @Test
+    void testNoTrigger() {
+        assertThat(executionPlanService.getExecutionPlan(1L, 3, 2)).isEmpty();
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright LBI-DHP and/or licensed to LBI-DHP under one or more
+ * contributor license agreements (LBI-DHP: Ludwig Boltzmann Institute
+ * for Digital Health and Prevention -- A research institute of the
+ * Ludwig Boltzmann Gesellschaft, Österreichische Vereinigung zur
+ * Förderung der wissenschaftlichen Forschung).
+ * Licensed under the Elastic License 2.0.
+ */
+package io.redlink.more.studymanager.scheduling;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.redlink.more.studymanager.core.sdk.schedule.CronSchedule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.quartz.JobDetail;
+import org.quartz.ObjectAlreadyExistsException;
+import org.quartz.Scheduler;
+import org.quartz.SchedulerException;
+import org.quartz.Trigger;
+import org.quartz.TriggerKey;
+import org.springframework.scheduling.quartz.SchedulerFactoryBean;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SchedulingServiceTest {
+
+    private final Scheduler scheduler = mock(Scheduler.class);
+
+    private SchedulingService schedulingService;
+
+    @BeforeEach
+    void setUp() throws SchedulerException {
+        SchedulerFactoryBean factory = mock(SchedulerFactoryBean.class);
+        when(factory.getScheduler()).thenReturn(scheduler);
+        schedulingService = new SchedulingService(factory, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void testScheduleJobIsIdempotent() throws SchedulerException {
+        String id = schedulingService.scheduleJob("issuer", Map.of("studyId", 1L), new CronSchedule("0 0 12 * * ?"), TriggerJob.class);
+        verify(scheduler, times(1)).scheduleJob(any(JobDetail.class), any(Trigger.class));
+
+        when(scheduler.checkExists(any(TriggerKey.class))).thenReturn(true);
+        assertThat(schedulingService.scheduleJob("issuer", Map.of("studyId", 1L), new CronSchedule("0 0 12 * * ?"), TriggerJob.class))
+                .isEqualTo(id);
+        verify(scheduler, times(1)).scheduleJob(any(JobDetail.class), any(Trigger.class));
+
+        assertThat(schedulingService.scheduleJob("issuer", Map.of("studyId", 1L), new CronSchedule("0 0 13 * * ?"), TriggerJob.class))
+                .isNotEqualTo(id);
+        assertThat(schedulingService.scheduleJob("other-issuer", Map.of("studyId", 1L), new CronSchedule("0 0 12 * * ?"), TriggerJob.class))
+                .isNotEqualTo(id);
+    }
+
+    @Test
+    void testConcurrentlyScheduledJob() throws SchedulerException {
+        doThrow(new ObjectAlreadyExistsException("exists"))
+                .when(scheduler).scheduleJob(any(JobDetail.class), any(Trigger.class));
+
+        assertThat(schedulingService.scheduleJob("issuer", Map.of("studyId", 1L), new CronSchedule("0 0 12 * * ?"), TriggerJob.class))
+                .isNotBlank();
+        verify(scheduler, never()).deleteJob(any());
+    }
+
+    @Test
+    void testCoalesceWithinFire() {
+        final AtomicInteger loads = new AtomicInteger();
+        final Instant fireTime = Instant.parse("2023-10-01T12:00:00.000Z");
+
+        // outside of a fire, every call loads
+        schedulingService.coalesce(1L, "participants", loads::incrementAndGet);
+        schedulingService.coalesce(1L, "participants", loads::incrementAndGet);
+        assertThat(loads).hasValue(2);
+
+        try (var fire = schedulingService.enterFire(1L, fireTime)) {
+            assertThat(schedulingService.coalesce(1L, "participants", loads::incrementAndGet)).isEqualTo(3);
+            // a different study is not shared
+            assertThat(schedulingService.coalesce(2L, "participants", loads::incrementAndGet)).isEqualTo(4);
+        }
+        try (var fire = schedulingService.enterFire(1L, fireTime.plusMillis(200))) {
+            assertThat(schedulingService.coalesce(1L, "participants", loads::incrementAndGet)).isEqualTo(3);
+            assertThat(schedulingService.coalesce(1L, "query", loads::incrementAndGet)).isEqualTo(5);
+        }
+        try (var fire = schedulingService.enterFire(1L, fireTime.plusSeconds(1))) {
+            assertThat(schedulingService.coalesce(1L, "participants", loads::incrementAndGet)).isEqualTo(6);
+        }
+        assertThat(schedulingService.isInFire(1L)).isFalse();
+    }
+}
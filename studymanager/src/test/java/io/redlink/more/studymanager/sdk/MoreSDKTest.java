@@ -14,17 +14,26 @@ import io.redlink.more.studymanager.core.io.Parameters;
 import io.redlink.more.studymanager.core.io.Timeframe;
 import io.redlink.more.studymanager.core.io.TriggerResult;
 import io.redlink.more.studymanager.core.sdk.schedule.CronSchedule;
+import io.redlink.more.studymanager.model.Contact;
 import io.redlink.more.studymanager.model.Participant;
+import io.redlink.more.studymanager.model.Study;
+import io.redlink.more.studymanager.model.StudyGroup;
 import io.redlink.more.studymanager.model.Trigger;
+import io.redlink.more.studymanager.repository.InterventionRepository;
+import io.redlink.more.studymanager.repository.ParticipantRepository;
+import io.redlink.more.studymanager.repository.StudyGroupRepository;
+import io.redlink.more.studymanager.repository.StudyRepository;
 import io.redlink.more.studymanager.service.ElasticService;
 import io.redlink.more.studymanager.service.InterventionService;
 import io.redlink.more.studymanager.service.ParticipantService;
-import java.util.List;
+import java.util.BitSet;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import org.apache.commons.lang3.RandomStringUtils;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.quartz.JobExecutionException;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.boot.test.mock.mockito.SpyBean;
@@ -33,6 +42,8 @@ import org.testcontainers.junit.jupiter.Testcontainers;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.atLeast;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
@@ -54,6 +65,9 @@ class MoreSDKTest {
     @MockBean
     InterventionService interventionService;
 
+    @MockBean
+    InterventionRepository interventionRepository;
+
     @MockBean
     ActionService actionService;
 
@@ -63,6 +77,15 @@ class MoreSDKTest {
     @MockBean
     ElasticService elasticService;
 
+    @Autowired
+    ParticipantRepository participantRepository;
+
+    @Autowired
+    StudyRepository studyRepository;
+
+    @Autowired
+    StudyGroupRepository studyGroupRepository;
+
     @Test
     void testTriggerScheduling() throws InterruptedException, JobExecutionException {
         Trigger triggerModel = spy(Trigger.class);
@@ -71,7 +94,7 @@ class MoreSDKTest {
         TriggerResult triggerResult = mock(TriggerResult.class);
 
         when(triggerModel.getType()).thenReturn("test-trigger");
-        when(interventionService.getTriggerByIds(any(),any())).thenReturn(triggerModel);
+        when(interventionRepository.getTriggerByIds(any(),any())).thenReturn(triggerModel);
         when(triggerFactory.getId()).thenReturn("test-trigger");
         when(triggerFactory.create(any(), any())).thenReturn(trigger);
         when(trigger.execute(any())).thenReturn(triggerResult);
@@ -105,26 +128,48 @@ class MoreSDKTest {
 
     @Test
     void testListParticipants() {
-        when(participantService.listParticipants(any())).thenReturn(List.of(
-                new Participant().setParticipantId(1).setStatus(Participant.Status.ACTIVE),
-                new Participant().setParticipantId(2).setStatus(Participant.Status.ACTIVE).setStudyGroupId(1),
-                new Participant().setParticipantId(3).setStatus(Participant.Status.ACTIVE).setStudyGroupId(2),
-                new Participant().setParticipantId(4).setStatus(Participant.Status.ACTIVE),
-                new Participant().setParticipantId(5).setStatus(Participant.Status.NEW).setStudyGroupId(1),
-                new Participant().setParticipantId(6).setStatus(Participant.Status.NEW)
-        ));
-
-        assertThat(moreSDK.listParticipants(1L, null, Set.of(Participant.Status.ACTIVE))).hasSize(4);
-        assertThat(moreSDK.listParticipants(1L, 1, Set.of(Participant.Status.ACTIVE))).hasSize(1);
-        assertThat(moreSDK.listParticipants(1L, 2, Set.of(Participant.Status.ACTIVE))).hasSize(1);
-
-        when(elasticService.participantsThatMapQuery(any(), any(), any(), any())).thenReturn(
-               List.of(1,5)
-        );
+        // participants are filtered by the database
+        when(participantService.listParticipantIds(anyLong(), any(), any())).thenAnswer(i ->
+                participantRepository.listParticipantIds(i.getArgument(0), i.getArgument(1), i.getArgument(2)));
+
+        final long studyId = studyRepository.insert(new Study().setContact(new Contact().setPerson("test").setEmail("test"))).getStudyId();
+        final int group1 = studyGroupRepository.insert(new StudyGroup().setStudyId(studyId)).getStudyGroupId();
+        final int group2 = studyGroupRepository.insert(new StudyGroup().setStudyId(studyId)).getStudyGroupId();
+        final int p1 = createParticipant(studyId, null, Participant.Status.ACTIVE);
+        final int p2 = createParticipant(studyId, group1, Participant.Status.ACTIVE);
+        final int p3 = createParticipant(studyId, group2, Participant.Status.ACTIVE);
+        final int p4 = createParticipant(studyId, null, Participant.Status.ACTIVE);
+        final int p5 = createParticipant(studyId, group1, Participant.Status.NEW);
+        createParticipant(studyId, null, Participant.Status.NEW);
+
+        assertThat(moreSDK.listParticipants(studyId, null, Set.of(Participant.Status.ACTIVE)))
+                .containsExactlyInAnyOrder(p1, p2, p3, p4);
+        assertThat(moreSDK.listParticipants(studyId, group1, Set.of(Participant.Status.ACTIVE)))
+                .containsExactly(p2);
+        assertThat(moreSDK.listParticipants(studyId, group2, Set.of(Participant.Status.ACTIVE)))
+                .containsExactly(p3);
+        assertThat(moreSDK.listParticipants(studyId, group1, null))
+                .containsExactlyInAnyOrder(p2, p5);
+
+        final BitSet matching = new BitSet();
+        matching.set(p1);
+        matching.set(p5);
+        when(elasticService.participantsThatMapQuery(any(), any(), anyString(), any())).thenReturn(matching);
 
         assertThat(
                 moreSDK.listActiveParticipantsByQuery(
-                        1L, null, "*", mock(Timeframe.class))
-        ).containsExactlyInAnyOrder(1);
+                        studyId, null, "*", mock(Timeframe.class))
+        ).containsExactlyInAnyOrder(p1);
+    }
+
+    private int createParticipant(long studyId, Integer studyGroupId, Participant.Status status) {
+        final Participant participant = participantRepository.insert(new Participant()
+                .setStudyId(studyId)
+                .setRegistrationToken(RandomStringUtils.randomAlphanumeric(12)));
+        if (studyGroupId != null) {
+            participantRepository.update(participant.setStudyGroupId(studyGroupId));
+        }
+        participantRepository.setStatusByIds(studyId, participant.getParticipantId(), status);
+        return participant.getParticipantId();
     }
 }
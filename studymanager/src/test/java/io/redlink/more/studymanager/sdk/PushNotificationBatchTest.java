@@ -0,0 +1,49 @@
+/*
+ * Copyright LBI-DHP and/or licensed to LBI-DHP under one or more
+ * contributor license agreements (LBI-DHP: Ludwig Boltzmann Institute
+ * for Digital Health and Prevention -- A research institute of the
+ * Ludwig Boltzmann Gesellschaft, Österreichische Vereinigung zur
+ * Förderung der wissenschaftlichen Forschung).
+ * Licensed under the Elastic License 2.0.
+ */
+package io.redlink.more.studymanager.sdk;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+class PushNotificationBatchTest {
+
+    @Test
+    void testSendGroupsByMessage() {
+        final MoreSDK sdk = mock(MoreSDK.class);
+        when(sdk.sendPushNotifications(eq(1L), any(), eq("title"), eq("message"), isNull())).thenReturn(Set.of(1, 2));
+        when(sdk.sendPushNotifications(eq(1L), any(), eq("title"), eq("observe"), any())).thenReturn(Set.of());
+
+        final List<Integer> stored = new ArrayList<>();
+        final PushNotificationBatch batch = new PushNotificationBatch();
+        batch.add(1, "title", "message", null, () -> stored.add(1));
+        batch.add(2, "title", "message", null, () -> stored.add(2));
+        batch.add(3, "title", "message", null, () -> stored.add(3));
+        batch.add(4, "title", "observe", Map.of("deepLink", "app://observation"), () -> stored.add(4));
+
+        assertThat(batch.send(sdk, 1L)).isEqualTo(2);
+        assertThat(stored).containsExactlyInAnyOrder(1, 2);
+
+        verify(sdk).sendPushNotifications(1L, Set.of(1, 2, 3), "title", "message", null);
+        verify(sdk).sendPushNotifications(1L, Set.of(4), "title", "observe", Map.of("deepLink", "app://observation"));
+        verifyNoMoreInteractions(sdk);
+    }
+}
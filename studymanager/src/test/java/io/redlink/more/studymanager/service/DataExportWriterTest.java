@@ -0,0 +1,95 @@
+/*
+ * Copyright LBI-DHP and/or licensed to LBI-DHP under one or more
+ * contributor license agreements (LBI-DHP: Ludwig Boltzmann Institute
+ * for Digital Health and Prevention -- A research institute of the
+ * Ludwig Boltzmann Gesellschaft, Österreichische Vereinigung zur
+ * Förderung der wissenschaftlichen Forschung).
+ * Licensed under the Elastic License 2.0.
+ */
+package io.redlink.more.studymanager.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.redlink.more.studymanager.model.ExportFormat;
+import io.redlink.more.studymanager.utils.MapperUtils;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DataExportWriterTest {
+
+    private static final List<JsonNode> DATAPOINTS = List.of(
+            datapoint("DP_1", Map.of("data_x", 1.5, "data_comment", "a;b")),
+            datapoint("DP_2", Map.of("data_x", 2))
+    );
+
+    @Test
+    void testJson() throws IOException {
+        final String result = new String(export(ExportFormat.JSON, false), StandardCharsets.UTF_8);
+        assertThat(MapperUtils.MAPPER.readValue(result, List.class)).hasSize(2);
+    }
+
+    @Test
+    void testEmptyJson() throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DataExportWriter.create(ExportFormat.JSON, out, false).close();
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("[]");
+    }
+
+    @Test
+    void testNdJson() throws IOException {
+        final String[] lines = new String(export(ExportFormat.NDJSON, false), StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(MapperUtils.MAPPER.readTree(lines[1]).get("datapoint_id").asText()).isEqualTo("DP_2");
+    }
+
+    @Test
+    void testCsv() throws IOException {
+        final String[] lines = new String(export(ExportFormat.CSV, false), StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(3);
+        assertThat(lines[0]).startsWith("datapoint_id;participant_id;").endsWith(";data");
+        assertThat(lines[1]).startsWith("DP_1;participant_1;study_1;;1;acc-mobile-observation;;;")
+                .contains("\"{\"\"");
+        assertThat(lines[2]).endsWith(";\"{\"\"x\"\":2}\"");
+    }
+
+    @Test
+    void testGzip() throws IOException {
+        final byte[] compressed = export(ExportFormat.NDJSON, true);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8))
+                    .isEqualTo(new String(export(ExportFormat.NDJSON, false), StandardCharsets.UTF_8));
+        }
+    }
+
+    private static byte[] export(ExportFormat format, boolean gzip) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (DataExportWriter writer = DataExportWriter.create(format, out, gzip)) {
+            for (JsonNode datapoint : DATAPOINTS) {
+                writer.write(datapoint);
+            }
+        }
+        return out.toByteArray();
+    }
+
+    private static JsonNode datapoint(String id, Map<String, Object> data) {
+        final Map<String, Object> dp = new HashMap<>(data);
+        dp.put("datapoint_id", id);
+        dp.put("participant_id", "participant_1");
+        dp.put("study_id", "study_1");
+        dp.put("observation_id", "1");
+        dp.put("observation_type", "acc-mobile-observation");
+        dp.put("data_type", "acc-mobile-observation");
+        dp.put("storage_date", "2023-10-01T10:00:00Z");
+        dp.put("effective_time_frame", "2023-10-01T10:00:00Z");
+        return MapperUtils.MAPPER.valueToTree(dp);
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright LBI-DHP and/or licensed to LBI-DHP under one or more
+ * contributor license agreements (LBI-DHP: Ludwig Boltzmann Institute
+ * for Digital Health and Prevention -- A research institute of the
+ * Ludwig Boltzmann Gesellschaft, Österreichische Vereinigung zur
+ * Förderung der wissenschaftlichen Forschung).
+ * Licensed under the Elastic License 2.0.
+ */
+package io.redlink.more.studymanager.service;
+
+import io.redlink.more.studymanager.model.Observation;
+import io.redlink.more.studymanager.model.Participant;
+import io.redlink.more.studymanager.model.ParticipationData;
+import io.redlink.more.studymanager.model.StudyGroup;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for {@link DataProcessingService#mergeParticipationData(List, List, List, List)} at realistic study sizes,
+ * compared to the previous implementation that scanned the merged list for every (observation, participant) pair.
+ * Not part of the test-suite, run {@link #main(String[])} on the test-classpath.
+ * <p>
+ * The largest point (50 observations, 5000 participants) is the target size; the quadratic baseline does not
+ * complete an iteration there within minutes, select only {@code DataProcessingBenchmark.mergeParticipationData$}
+ * to measure it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DataProcessingBenchmark {
+
+    @Param({"10", "25", "50"})
+    int observations;
+
+    @Param({"500", "2000", "5000"})
+    int participants;
+
+    private static final int STUDY_GROUPS = 4;
+
+    private List<Observation> observationList;
+    private List<Participant> participantList;
+    private List<StudyGroup> studyGroupList;
+    private List<ParticipationData> elasticData;
+
+    @Setup
+    public void setup() {
+        studyGroupList = new ArrayList<>();
+        for (int g = 1; g <= STUDY_GROUPS; g++) {
+            studyGroupList.add(new StudyGroup().setStudyId(1L).setStudyGroupId(g).setTitle("group " + g));
+        }
+        participantList = new ArrayList<>();
+        for (int p = 1; p <= participants; p++) {
+            participantList.add(new Participant().setStudyId(1L).setParticipantId(p).setAlias("participant " + p)
+                    .setStudyGroupId(p % (STUDY_GROUPS + 1) == 0 ? null : p % (STUDY_GROUPS + 1)));
+        }
+        observationList = new ArrayList<>();
+        for (int o = 1; o <= observations; o++) {
+            observationList.add(new Observation().setStudyId(1L).setObservationId(o).setTitle("observation " + o)
+                    .setType("acc-mobile-observation")
+                    .setStudyGroupId(o % 3 == 0 ? (o % STUDY_GROUPS) + 1 : null));
+        }
+        // about 80% of the expected (observation, participant) pairs have data
+        elasticData = new ArrayList<>();
+        final Instant now = Instant.now();
+        for (Observation o : observationList) {
+            for (Participant p : participantList) {
+                if (o.getStudyGroupId() != null && !o.getStudyGroupId().equals(p.getStudyGroupId())) {
+                    continue;
+                }
+                if ((o.getObservationId() + p.getParticipantId()) % 5 != 0) {
+                    elasticData.add(new ParticipationData(
+                            new ParticipationData.NamedId(o.getObservationId(), null),
+                            "observationType",
+                            new ParticipationData.NamedId(p.getParticipantId(), null),
+                            p.getStudyGroupId() == null ? null : new ParticipationData.NamedId(p.getStudyGroupId(), null),
+                            true,
+                            now));
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public List<ParticipationData> mergeParticipationData() {
+        return DataProcessingService.mergeParticipationData(observationList, participantList, studyGroupList, elasticData);
+    }
+
+    @Benchmark
+    public List<ParticipationData> mergeParticipationDataBaseline() {
+        return mergeParticipationDataBaseline(observationList, participantList, studyGroupList, elasticData);
+    }
+
+    /**
+     * The merge as implemented before the keyed index was introduced.
+     */
+    private static List<ParticipationData> mergeParticipationDataBaseline(List<Observation> observationList, List<Participant> participantList,
+                                                                          List<StudyGroup> studyGroupList, List<ParticipationData> elasticData) {
+        Map<Observation, List<Participant>> participantsByObservation = new HashMap<>();
+        for(Observation observation : observationList) {
+            if(observation.getStudyGroupId() == null){
+                participantsByObservation.put(observation, participantList);
+            }else{
+                participantsByObservation.put(observation, participantList
+                        .stream().filter(p -> (observation.getStudyGroupId().equals(p.getStudyGroupId())))
+                        .toList());
+            }
+        }
+        Map<Integer, Observation> observationById = new HashMap<>();
+        Map<Integer, Participant> participantById = new HashMap<>();
+        Map<Integer, StudyGroup> studyGroupById = new HashMap<>();
+        for(Observation observation : observationList){
+            observationById.put(observation.getObservationId(), observation);
+        }
+        for(Participant participant : participantList){
+            participantById.put(participant.getParticipantId(), participant);
+        }
+        for(StudyGroup studyGroup : studyGroupList){
+            studyGroupById.put(studyGroup.getStudyGroupId(), studyGroup);
+        }
+
+        List<ParticipationData> incompleteParticipationDataList = elasticData
+                .stream().filter(p -> observationById.get(p.observationNamedId().id()) != null).toList();
+        List<ParticipationData> participationDataList = new ArrayList<>();
+
+        ParticipationData.NamedId studyGroup;
+        for(ParticipationData participationData : incompleteParticipationDataList){
+            studyGroup = null;
+            if(participationData.studyGroupNamedId() != null)
+                studyGroup = new ParticipationData.NamedId(
+                        participationData.studyGroupNamedId().id(),
+                        studyGroupById.get(participationData.studyGroupNamedId().id()).getTitle());
+            participationDataList.add(new ParticipationData(
+                    new ParticipationData.NamedId(participationData.observationNamedId().id(), observationById.get(participationData.observationNamedId().id()).getTitle()),
+                    observationById.get(participationData.observationNamedId().id()).getType(),
+                    new ParticipationData.NamedId(participationData.participantNamedId().id(), participantById.get(participationData.participantNamedId().id()).getAlias()),
+                    studyGroup,
+                    participationData.dataReceived(),
+                    participationData.lastDataReceived()
+            ));
+        }
+
+        for(Observation observation : participantsByObservation.keySet()){
+            for(Participant participant : participantsByObservation.get(observation)){
+                if(participationDataList.stream()
+                        .filter(p -> (
+                                p.observationNamedId().id() == (observation.getObservationId()) &&
+                                        (p.studyGroupNamedId() != null
+                                                ? (participant.getStudyGroupId() != null && p.studyGroupNamedId().id() == participant.getStudyGroupId())
+                                                : participant.getStudyGroupId() == null) &&
+                                        p.participantNamedId().id() == (participant.getParticipantId()))).toList().isEmpty()) {
+                    studyGroup = null;
+                    if(participant.getStudyGroupId() != null)
+                        studyGroup = new ParticipationData.NamedId(participant.getStudyGroupId(), studyGroupById.get(participant.getStudyGroupId()).getTitle());
+                    participationDataList.add(new ParticipationData(
+                            new ParticipationData.NamedId(observation.getObservationId(), observation.getTitle()),
+                            observation.getType(),
+                            new ParticipationData.NamedId(participant.getParticipantId(), participant.getAlias()),
+                            studyGroup,
+                            false,
+                            null)
+                    );
+                }
+            }
+        }
+        Collections.sort(participationDataList);
+        return participationDataList;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(DataProcessingBenchmark.class.getSimpleName())
+                .build()
+        ).run();
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright LBI-DHP and/or licensed to LBI-DHP under one or more
+ * contributor license agreements (LBI-DHP: Ludwig Boltzmann Institute
+ * for Digital Health and Prevention -- A research institute of the
+ * Ludwig Boltzmann Gesellschaft, Österreichische Vereinigung zur
+ * Förderung der wissenschaftlichen Forschung).
+ * Licensed under the Elastic License 2.0.
+ */
+package io.redlink.more.studymanager.service;
+
+import io.redlink.more.studymanager.model.Study;
+import io.redlink.more.studymanager.properties.ElasticProperties;
+import io.redlink.more.studymanager.repository.StudyRepository;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ElasticIndexMigrationTest {
+
+    private final StudyRepository studyRepository = mock(StudyRepository.class);
+
+    private final ElasticService elasticService = mock(ElasticService.class);
+
+    @Test
+    void testMigrateAll() throws IOException {
+        when(studyRepository.listStudyOrderByModifiedDesc()).thenReturn(List.of(
+                new Study().setStudyId(1L), new Study().setStudyId(2L), new Study().setStudyId(3L)));
+        when(elasticService.migrateToSharedIndex(1L)).thenReturn(true);
+        when(elasticService.migrateToSharedIndex(2L)).thenThrow(new IOException("reindex failed"));
+        when(elasticService.migrateToSharedIndex(3L)).thenReturn(false);
+
+        ElasticIndexMigration migration = new ElasticIndexMigration(studyRepository, elasticService,
+                elasticProperties(ElasticProperties.Layout.SHARED, true));
+
+        assertThat(migration.migrateAll()).isEqualTo(1);
+        verify(elasticService).migrateToSharedIndex(3L);
+    }
+
+    @Test
+    void testNoMigrationOnStartupWithPerStudyLayout() throws IOException {
+        new ElasticIndexMigration(studyRepository, elasticService,
+                elasticProperties(ElasticProperties.Layout.PER_STUDY, true)).onStartUp();
+
+        verify(elasticService, never()).migrateToSharedIndex(anyLong());
+    }
+
+    private static ElasticProperties elasticProperties(ElasticProperties.Layout layout, boolean migrateOnStartup) {
+        return new ElasticProperties(null, null, 9200, null, null, null, null, null,
+                new ElasticProperties.StorageProperties(layout, null, migrateOnStartup), null);
+    }
+}
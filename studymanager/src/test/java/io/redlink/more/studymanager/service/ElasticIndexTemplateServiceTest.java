@@ -0,0 +1,59 @@
+/*
+ * Copyright LBI-DHP and/or licensed to LBI-DHP under one or more
+ * contributor license agreements (LBI-DHP: Ludwig Boltzmann Institute
+ * for Digital Health and Prevention -- A research institute of the
+ * Ludwig Boltzmann Gesellschaft, Österreichische Vereinigung zur
+ * Förderung der wissenschaftlichen Forschung).
+ * Licensed under the Elastic License 2.0.
+ */
+package io.redlink.more.studymanager.service;
+
+import co.elastic.clients.elasticsearch._types.mapping.TypeMapping;
+import io.redlink.more.studymanager.core.factory.ObservationFactory;
+import io.redlink.more.studymanager.core.measurement.Measurement;
+import io.redlink.more.studymanager.core.measurement.MeasurementSet;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ElasticIndexTemplateServiceTest {
+
+    @Test
+    void testBuildMappings() {
+        TypeMapping mapping = ElasticIndexTemplateService.buildMappings(List.of(
+                observationFactory(
+                        new Measurement("x", Measurement.Type.DOUBLE),
+                        new Measurement("hr", Measurement.Type.INTEGER),
+                        new Measurement("answer", Measurement.Type.STRING)),
+                observationFactory(
+                        new Measurement("x", Measurement.Type.DOUBLE),
+                        new Measurement("value", Measurement.Type.INTEGER),
+                        Measurement.Any),
+                observationFactory(
+                        new Measurement("value", Measurement.Type.BOOLEAN))
+        ));
+
+        assertThat(mapping.properties().get("participant_id").isKeyword()).isTrue();
+        assertThat(mapping.properties().get("participant_id").keyword().fields()).containsKey("keyword");
+        // queries use the sub-field, the parent is not indexed twice
+        assertThat(mapping.properties().get("participant_id").keyword().index()).isFalse();
+        assertThat(mapping.properties().get("observation_id").isKeyword()).isTrue();
+        assertThat(mapping.properties().get("effective_time_frame").isDate()).isTrue();
+
+        assertThat(mapping.properties().get("data_x").isDouble()).isTrue();
+        assertThat(mapping.properties().get("data_hr").isLong()).isTrue();
+        // strings and conflicting types are left to the dynamic mapping
+        assertThat(mapping.properties()).doesNotContainKeys("data_answer", "data_value", "data_null");
+    }
+
+    private static ObservationFactory observationFactory(Measurement... measurements) {
+        ObservationFactory factory = mock(ObservationFactory.class);
+        when(factory.getMeasurementSet()).thenReturn(new MeasurementSet("test", Set.of(measurements)));
+        return factory;
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright LBI-DHP and/or licensed to LBI-DHP under one or more
+ * contributor license agreements (LBI-DHP: Ludwig Boltzmann Institute
+ * for Digital Health and Prevention -- A research institute of the
+ * Ludwig Boltzmann Gesellschaft, Österreichische Vereinigung zur
+ * Förderung der wissenschaftlichen Forschung).
+ * Licensed under the Elastic License 2.0.
+ */
+package io.redlink.more.studymanager.service;
+
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import io.redlink.more.studymanager.core.io.DataQuery;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ElasticQueryCompilerTest {
+
+    @Test
+    void testCompileCondition() {
+        final Query query = ElasticQueryCompiler.compile(new DataQuery.Condition(17, "x", DataQuery.Operator.GT, 75));
+
+        assertThat(query.isBool()).isTrue();
+        assertThat(query.bool().must()).isEmpty();
+        assertThat(query.bool().filter()).hasSize(2);
+        assertThat(query.bool().filter().get(0).term().field()).isEqualTo("observation_id.keyword");
+        assertThat(query.bool().filter().get(0).term().value().stringValue()).isEqualTo("17");
+        assertThat(query.bool().filter().get(1).range().field()).isEqualTo("data_x");
+        assertThat(query.bool().filter().get(1).range().gt().to(Integer.class)).isEqualTo(75);
+    }
+
+    @Test
+    void testCompileEquality() {
+        final Query numeric = ElasticQueryCompiler.compile(new DataQuery.Condition(1, "y", DataQuery.Operator.EQ, 23));
+        assertThat(numeric.bool().filter().get(1).term().value().longValue()).isEqualTo(23L);
+
+        final Query text = ElasticQueryCompiler.compile(new DataQuery.Condition(1, "mood", DataQuery.Operator.EQ, "very good"));
+        assertThat(text.bool().filter().get(1).matchPhrase().query()).isEqualTo("very good");
+
+        final Query negated = ElasticQueryCompiler.compile(new DataQuery.Condition(1, "y", DataQuery.Operator.NEQ, true));
+        assertThat(negated.bool().filter().get(1).bool().mustNot())
+                .singleElement()
+                .satisfies(q -> assertThat(q.term().value().booleanValue()).isTrue());
+    }
+
+    @Test
+    void testCompileGroups() {
+        final DataQuery.Condition a = new DataQuery.Condition(1, "a", DataQuery.Operator.LT, 1);
+        final DataQuery.Condition b = new DataQuery.Condition(2, "b", DataQuery.Operator.GTE, 2.5);
+        final Query query = ElasticQueryCompiler.compile(new DataQuery.Any(List.of(
+                new DataQuery.All(List.of(a, b)),
+                a
+        )));
+
+        assertThat(query.bool().should()).hasSize(2);
+        assertThat(query.bool().minimumShouldMatch()).isEqualTo("1");
+        assertThat(query.bool().should().get(0).bool().filter()).hasSize(2);
+    }
+}
@@ -15,15 +15,19 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.google.common.io.Resources;
 import io.redlink.more.studymanager.configuration.ElasticConfiguration;
 import io.redlink.more.studymanager.model.data.ElasticActionDataPoint;
+import io.redlink.more.studymanager.model.ExportFormat;
 import io.redlink.more.studymanager.model.Study;
 import io.redlink.more.studymanager.core.io.Timeframe;
 
 import java.io.ByteArrayOutputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Map;
 import java.util.UUID;
 
 import io.redlink.more.studymanager.model.data.ElasticObservationDataPoint;
+import io.redlink.more.studymanager.model.data.SimpleDataPointPage;
 import io.redlink.more.studymanager.utils.MapperUtils;
 import org.junit.Assert;
 import org.junit.jupiter.api.Test;
@@ -50,6 +54,7 @@ import static org.assertj.core.api.Assertions.*;
 @ContextConfiguration(initializers = ElasticSearchServiceTest.EnvInitializer.class,
         classes = {
                 ElasticService.class,
+                ElasticIngestService.class,
                 ElasticConfiguration.class,
                 JacksonAutoConfiguration.class,
         })
@@ -66,6 +71,9 @@ class ElasticSearchServiceTest {
     @Autowired
     private ElasticService elasticService;
 
+    @Autowired
+    private ElasticIngestService ingestService;
+
     @Autowired
     private ElasticsearchClient client;
 
@@ -78,12 +86,12 @@ class ElasticSearchServiceTest {
 
         Thread.sleep(1000);
 
-        List<Integer> ids = elasticService.participantsThatMapQuery(
+        BitSet ids = elasticService.participantsThatMapQuery(
                 study.getStudyId(), null, "data_z:[* TO *]",
                 new Timeframe(Instant.parse("2022-10-24T10:00:00Z"), Instant.parse("2022-10-24T15:00:00Z"))
         );
-        assertThat(ids).hasSize(1);
-        assertThat(ids.get(0)).isEqualTo(10);
+        assertThat(ids.cardinality()).isEqualTo(1);
+        assertThat(ids.get(10)).isTrue();
 
         elasticService.deleteIndex(study);
     }
@@ -111,13 +119,12 @@ class ElasticSearchServiceTest {
         for (int i = 0; i < 1200; i++) {
             setDataPoint(1L, 2, i);
         }
+        ingestService.flush();
         //wait for auto commit
         Thread.sleep(2000);
         ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-        try(outputStream) {
-            outputStream.write("[".getBytes(StandardCharsets.UTF_8));
-            elasticService.exportData(1L, outputStream);
-            outputStream.write("]".getBytes(StandardCharsets.UTF_8));
+        try(DataExportWriter writer = DataExportWriter.create(ExportFormat.JSON, outputStream, false)) {
+            elasticService.exportData(1L, writer);
         } catch (IOException e) {
             //do nothing than close
         }
@@ -126,6 +133,62 @@ class ElasticSearchServiceTest {
         assertThat(MapperUtils.MAPPER.readValue(result, List.class)).hasSize(1200);
     }
 
+    @Test
+    void testSlicedExportData() throws IOException, InterruptedException {
+        for (int i = 0; i < 1200; i++) {
+            setDataPoint(3L, 2, i);
+        }
+        ingestService.flush();
+        //wait for auto commit
+        Thread.sleep(2000);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try(DataExportWriter writer = DataExportWriter.create(ExportFormat.NDJSON, outputStream, false)) {
+            elasticService.exportData(3L, 3, writer);
+        }
+        List<String> lines = outputStream.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(lines).hasSize(1200);
+        assertThat(lines).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void testListDataPoints() throws IOException, InterruptedException {
+        for (int i = 0; i < 250; i++) {
+            elasticService.setDataPoint(4L, new ElasticObservationDataPoint(
+                    "DP_4_2_" + i,
+                    "participant_2",
+                    "study_4",
+                    null,
+                    "2",
+                    "acc-mobile-observation",
+                    "acc-mobile-observation",
+                    Instant.now(),
+                    Instant.parse("2022-10-24T10:00:00Z").plusSeconds(i / 2),
+                    Map.of("i", i, "x", 1)
+            ));
+        }
+        ingestService.flush();
+        //wait for auto commit
+        Thread.sleep(2000);
+
+        final List<Object> values = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            SimpleDataPointPage page = elasticService.listDataPoints(4L, 2, 2, null, 100, cursor, List.of("i"));
+            page.dataPoints().forEach(dp -> {
+                assertThat(dp.getData()).containsOnlyKeys("i");
+                values.add(dp.getData().get("i"));
+            });
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(pages).isEqualTo(3);
+        assertThat(values).hasSize(250).doesNotHaveDuplicates();
+
+        assertThat(elasticService.listDataPoints(404L, null, null, null, 100, null, null).dataPoints()).isEmpty();
+    }
+
     private void setDataPoint(Long studyId, int participantId, int i) {
         elasticService.setDataPoint(studyId, new ElasticObservationDataPoint(
                 "DP_" + studyId + "_" + participantId + "_" + i,
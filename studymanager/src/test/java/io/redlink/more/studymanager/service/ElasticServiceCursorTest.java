@@ -0,0 +1,60 @@
+/*
+ * Copyright LBI-DHP and/or licensed to LBI-DHP under one or more
+ * contributor license agreements (LBI-DHP: Ludwig Boltzmann Institute
+ * for Digital Health and Prevention -- A research institute of the
+ * Ludwig Boltzmann Gesellschaft, Österreichische Vereinigung zur
+ * Förderung der wissenschaftlichen Forschung).
+ * Licensed under the Elastic License 2.0.
+ */
+package io.redlink.more.studymanager.service;
+
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import io.redlink.more.studymanager.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ElasticServiceCursorTest {
+
+    @Test
+    void testCursorRoundTrip() {
+        final List<FieldValue> sort = List.of(FieldValue.of(1666605600000L), FieldValue.of("DP_1_2_3"));
+
+        final List<FieldValue> decoded = ElasticService.decodeCursor(ElasticService.encodeCursor(sort));
+
+        assertThat(decoded).hasSize(2);
+        assertThat(decoded.get(0).longValue()).isEqualTo(1666605600000L);
+        assertThat(decoded.get(1).stringValue()).isEqualTo("DP_1_2_3");
+
+        // datapoints without id have no value for the tiebreaker
+        assertThat(ElasticService.decodeCursor(ElasticService.encodeCursor(List.of(FieldValue.of(1L), FieldValue.NULL))).get(1).isNull())
+                .isTrue();
+    }
+
+    @Test
+    void testInvalidCursor() {
+        assertThatThrownBy(() -> ElasticService.decodeCursor("not a cursor!"))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> ElasticService.decodeCursor(encode("{\"a\": 1}")))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> ElasticService.decodeCursor(encode("null")))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> ElasticService.decodeCursor(encode("[1]")))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> ElasticService.decodeCursor(encode("[1, \"a\", 2]")))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> ElasticService.decodeCursor(encode("[1, {}]")))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> ElasticService.decodeCursor(encode("[\"2022-10-24\", \"a\"]")))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    private static String encode(String json) {
+        return Base64.getUrlEncoder().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
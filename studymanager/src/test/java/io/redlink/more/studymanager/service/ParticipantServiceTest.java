@@ -11,6 +11,7 @@ package io.redlink.more.studymanager.service;
 import co.elastic.clients.elasticsearch.ElasticsearchClient;
 import io.redlink.more.studymanager.model.Participant;
 import io.redlink.more.studymanager.model.generator.RandomTokenGenerator;
+import io.redlink.more.studymanager.properties.ElasticProperties;
 import io.redlink.more.studymanager.repository.ParticipantRepository;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -37,7 +38,8 @@ class ParticipantServiceTest {
     StudyStateService studyStateService;
 
     @Spy
-    ElasticService elasticService = new ElasticService(mock(ElasticsearchClient.class));
+    ElasticService elasticService = new ElasticService(mock(ElasticsearchClient.class), mock(ElasticIngestService.class),
+            new ElasticProperties(null, null, 9200, null, null, null, null, null, null, null));
 
     @InjectMocks
     ParticipantService participantService;
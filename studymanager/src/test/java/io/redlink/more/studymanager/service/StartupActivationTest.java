@@ -0,0 +1,70 @@
+/*
+ * Copyright LBI-DHP and/or licensed to LBI-DHP under one or more
+ * contributor license agreements (LBI-DHP: Ludwig Boltzmann Institute
+ * for Digital Health and Prevention -- A research institute of the
+ * Ludwig Boltzmann Gesellschaft, Österreichische Vereinigung zur
+ * Förderung der wissenschaftlichen Forschung).
+ * Licensed under the Elastic License 2.0.
+ */
+package io.redlink.more.studymanager.service;
+
+import io.redlink.more.studymanager.model.Study;
+import io.redlink.more.studymanager.properties.StartupActivationProperties;
+import io.redlink.more.studymanager.repository.StudyRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Status;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StartupActivationTest {
+
+    private final StudyRepository studyRepository = mock(StudyRepository.class);
+
+    private final InterventionService interventionService = mock(InterventionService.class);
+
+    private final StartupActivation startupActivation = new StartupActivation(studyRepository, interventionService,
+            new StartupActivationProperties(2));
+
+    @Test
+    void testActivateAll() {
+        when(studyRepository.listStudiesByStatus(Study.Status.ACTIVE)).thenReturn(List.of(
+                new Study().setStudyId(1L), new Study().setStudyId(2L), new Study().setStudyId(3L),
+                new Study().setStudyId(4L)));
+        doThrow(new IllegalStateException("failed"))
+                .when(interventionService).activateInterventionsFor(argThat(study -> study.getStudyId() == 2L));
+        doReturn(1)
+                .when(interventionService).activateInterventionsFor(argThat(study -> study.getStudyId() == 3L));
+
+        assertThat(startupActivation.health().getStatus()).isEqualTo(Status.OUT_OF_SERVICE);
+
+        assertThat(startupActivation.activateAll()).succeedsWithin(1, TimeUnit.SECONDS);
+        verify(interventionService, times(4)).activateInterventionsFor(argThat(study -> true));
+        assertThat(startupActivation.health().getStatus()).isEqualTo(Status.UP);
+        assertThat(startupActivation.health().getDetails())
+                .containsEntry("studies", 4)
+                .containsEntry("activated", 2)
+                .containsEntry("failed", 2);
+
+        // activation runs only once, also if the context is refreshed again
+        assertThat(startupActivation.activateAll()).isDone();
+        verify(studyRepository, times(1)).listStudiesByStatus(Study.Status.ACTIVE);
+    }
+
+    @Test
+    void testListingStudiesFails() {
+        when(studyRepository.listStudiesByStatus(Study.Status.ACTIVE)).thenThrow(new IllegalStateException("failed"));
+
+        assertThat(startupActivation.activateAll()).failsWithin(1, TimeUnit.SECONDS);
+        assertThat(startupActivation.health().getStatus()).isEqualTo(Status.UP);
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright LBI-DHP and/or licensed to LBI-DHP under one or more
+ * contributor license agreements (LBI-DHP: Ludwig Boltzmann Institute
+ * for Digital Health and Prevention -- A research institute of the
+ * Ludwig Boltzmann Gesellschaft, Österreichische Vereinigung zur
+ * Förderung der wissenschaftlichen Forschung).
+ * Licensed under the Elastic License 2.0.
+ */
+package io.redlink.more.studymanager.service;
+
+import io.redlink.more.studymanager.exception.BadStudyStateException;
+import io.redlink.more.studymanager.model.StatusChangeJob;
+import io.redlink.more.studymanager.model.Study;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StatusChangeJobServiceTest {
+
+    private final StatusChangeJobService jobService = new StatusChangeJobService();
+
+    @Test
+    void testOneRunningJobPerStudy() {
+        final StatusChangeJob job = jobService.create(1L, Study.Status.DRAFT, Study.Status.ACTIVE);
+        assertThat(jobService.getJob(1L, job.getJobId())).containsSame(job);
+        assertThat(jobService.getJob(2L, job.getJobId())).isEmpty();
+
+        assertThatThrownBy(() -> jobService.create(1L, Study.Status.DRAFT, Study.Status.ACTIVE))
+                .isInstanceOf(BadStudyStateException.class);
+        assertThat(jobService.create(2L, Study.Status.DRAFT, Study.Status.ACTIVE)).isNotNull();
+
+        jobService.run(job, j -> j.setParticipants(2).addNotified(1, 1));
+        assertThat(job.getState()).isEqualTo(StatusChangeJob.State.DONE);
+        assertThat(job.getFinished()).isNotNull();
+        assertThat(job.getNotified()).isEqualTo(1);
+        assertThat(job.getNotificationFailures()).isEqualTo(1);
+
+        assertThat(jobService.create(1L, Study.Status.ACTIVE, Study.Status.PAUSED)).isNotNull();
+    }
+
+    @Test
+    void testFailingJob() {
+        final StatusChangeJob job = jobService.create(1L, Study.Status.DRAFT, Study.Status.ACTIVE);
+        jobService.run(job, j -> {
+            throw new IllegalStateException("activation failed");
+        });
+
+        assertThat(job.getState()).isEqualTo(StatusChangeJob.State.FAILED);
+        assertThat(job.getErrors()).containsExactly("activation failed");
+    }
+}
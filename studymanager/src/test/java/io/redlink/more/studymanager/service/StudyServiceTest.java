@@ -23,11 +23,13 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.TaskRejectedException;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.in;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -50,6 +52,9 @@ class StudyServiceTest {
     @Mock
     StudyStateService studyStateService;
 
+    @Mock
+    StatusChangeJobService statusChangeJobService;
+
     @InjectMocks
     StudyService studyService;
 
@@ -117,6 +122,24 @@ class StudyServiceTest {
         testForbiddenSetStatus(Study.Status.CLOSED, Study.Status.DRAFT);
     }
 
+    @Test
+    @DisplayName("When the status change can not be started the job should fail and the state be restored")
+    void testSetStatusNotStarted() {
+        Study study = new Study().setStudyId(1L).setStudyState(Study.Status.DRAFT);
+        StatusChangeJob job = new StatusChangeJob(1L, Study.Status.DRAFT, Study.Status.ACTIVE);
+        when(studyRepository.getById(any(Long.class), any())).thenReturn(Optional.of(study));
+        when(studyRepository.getById(1L)).thenReturn(Optional.of(study));
+        when(statusChangeJobService.create(1L, Study.Status.DRAFT, Study.Status.ACTIVE)).thenReturn(job);
+        doThrow(new TaskRejectedException("executor busy")).when(statusChangeJobService).run(eq(job), any());
+
+        Assertions.assertThrows(TaskRejectedException.class,
+                () -> studyService.setStatus(1L, Study.Status.ACTIVE, currentUser));
+
+        assertThat(job.getState()).isEqualTo(StatusChangeJob.State.FAILED);
+        verify(studyRepository).setStateById(1L, Study.Status.ACTIVE);
+        verify(studyRepository).setStateById(1L, Study.Status.DRAFT);
+    }
+
     private void testForbiddenSetStatus(Study.Status statusBefore, Study.Status statusAfter) {
         Study study = new Study().setStudyId(1L).setStudyState(statusBefore)
                 .setContact(new Contact()